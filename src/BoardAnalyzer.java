@@ -0,0 +1,231 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * A command-line tool for judging how hard a board is. It plays the board thousands of times without drawing it, with the paddle
+ * moved by a simple computer policy, and reports how often the board was cleared, how long that took, how many lives were lost,
+ * and how often each brick was hit. The runs are spread across every core, and the same seed always gives the same report.
+ */
+public class BoardAnalyzer {
+    private static final int AIMTIME = 300; //how many ticks the autopilot keeps aiming at the same spot on the paddle
+
+    /**
+     * The result of playing a board once.
+     */
+    private static class RunResult {
+        boolean cleared;
+        int ticks;
+        int livesLost;
+        int[] brickHits;
+        RunRecord record;
+    }
+
+    /**
+     * Usage: java BoardAnalyzer boardFile [runs] [seed] [autopilot|random] [maxTicks] [resultsFile]
+     * The autopilot follows the ball and hits it with a randomly chosen part of the paddle. The random policy changes direction at random.
+     * A run that hasn't ended after maxTicks is counted as not cleared. If a results file is given, every run is added to it.
+     */
+    public static void main(String[] args) {
+        if(args.length == 0){
+            System.out.println("Usage: java BoardAnalyzer boardFile [runs] [seed] [autopilot|random] [maxTicks] [resultsFile]");
+            return;
+        }
+        String filename = args[0];
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        String policy = args.length > 3 ? args[3] : "autopilot";
+        int maxTicks = args.length > 4 ? Integer.parseInt(args[4]) : 100000;
+        String resultsFile = args.length > 5 ? args[5] : null;
+        String boardName = new File(filename).getName();
+
+        if(!policy.equals("autopilot") && !policy.equals("random")){
+            System.out.println("The paddle policy must be autopilot or random.");
+            return;
+        }
+
+        ParsedBoard board; //this includes the chunk index of a scrolling level, which each run streams its chunks from
+        try{
+            if(Campaign.isCampaign(filename)){
+                System.out.println("That file is a campaign. Analyze each of its boards on its own instead.");
+                return;
+            }
+            board = ParsedBoard.read(filename);
+        }
+        catch (FileNotFoundException e){
+            System.out.println("That file was not found.");
+            return;
+        }
+
+        //every run gets its own seed up front so that the results don't depend on which thread runs it
+        long[] runSeeds = new long[runs];
+        Random seeder = new Random(seed);
+        for(int i = 0; i < runs; i++){
+            runSeeds[i] = seeder.nextLong();
+        }
+
+        long start = System.nanoTime();
+        RunResult[] results = IntStream.range(0, runs).parallel()
+                .mapToObj(i -> simulate(board, boardName, runSeeds[i], policy, maxTicks))
+                .toArray(RunResult[]::new);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        printReport(filename, board.getLines(), results, seed, policy, maxTicks, seconds);
+
+        if(resultsFile != null){
+            saveResults(resultsFile, boardName, results);
+        }
+    }
+
+    /**
+     * Adds every run to a results file, in the same order as the runs' seeds.
+     */
+    private static void saveResults(String resultsFile, String boardName, RunResult[] results){
+        try(ResultsStore store = new ResultsStore(resultsFile)){
+            for(RunResult result : results){
+                store.append(result.record, boardName);
+            }
+            store.flush();
+            System.out.println("Saved " + results.length + " runs to " + resultsFile + " (" + store.size() + " runs in total)");
+        }
+        catch (IOException e){
+            System.out.println("The runs couldn't be saved: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Plays one game until it is over or runs out of time.
+     */
+    private static RunResult simulate(ParsedBoard board, String boardName, long seed, String policy, int maxTicks){
+        Game game = new Game(board, seed);
+        Random policyRand = new Random(~seed); //kept apart from the game's own randomness so the policy can't change when powerups appear
+
+        RunResult result = new RunResult();
+        double aimOffset = 0;
+        int direction = 0;
+        while(!game.isOver() && result.ticks < maxTicks){
+            Paddle paddle = game.getPaddle();
+            if(paddle != null){
+                if(policy.equals("autopilot")){
+                    if(result.ticks % AIMTIME == 0){
+                        aimOffset = (policyRand.nextDouble()*2 - 1) * paddle.getWidth() / 3.0;
+                    }
+                    direction = autopilot(game, paddle, aimOffset);
+                }
+                else if(policyRand.nextInt(20) == 0){
+                    direction = policyRand.nextInt(3) - 1;
+                }
+                game.movePaddle(direction);
+            }
+
+            int livesBefore = game.getLives();
+            game.update();
+            result.ticks++;
+            if(game.getLives() < livesBefore){
+                result.livesLost += livesBefore - game.getLives();
+            }
+        }
+        result.cleared = game.getLives() > 0 && game.isOver();
+        result.brickHits = game.getBrickHits();
+        result.record = game.makeRecord(boardName);
+        return result;
+    }
+
+    /**
+     * Moves the paddle under whichever falling ball is lowest, so that the ball lands aimOffset away from the paddle's center.
+     * @return -1 to move left, 1 to move right, or 0 to stay put
+     */
+    private static int autopilot(Game game, Paddle paddle, double aimOffset){
+        Ball target = null;
+        for(Drawable thisObject : game.getGameObjects()){
+            if(thisObject instanceof Ball){
+                Ball thisBall = (Ball)thisObject;
+                boolean falling = thisBall.getyVelocity() > 0;
+                boolean targetFalling = target != null && target.getyVelocity() > 0;
+                if(target == null || (falling && !targetFalling) || (falling == targetFalling && thisBall.getyPosition() > target.getyPosition())){
+                    target = thisBall;
+                }
+            }
+        }
+        if(target == null){
+            return 0;
+        }
+        double goal = target.getxPosition() - aimOffset;
+        if(paddle.getxPosition() < goal - 1){
+            return 1;
+        }
+        if(paddle.getxPosition() > goal + 1){
+            return -1;
+        }
+        return 0;
+    }
+
+    /**
+     * Reads just the regular bricks from a board's lines, in the same order Game numbers them, without building a whole game.
+     */
+    private static List<Brick> readBricks(List<String> boardLines){
+        List<Brick> boardBricks = new ArrayList<>();
+        int line = boardLines.get(0).startsWith("Scrolling") ? 1 : 0;
+        int numBricks = Integer.parseInt(boardLines.get(line).trim());
+        for(int i = 0; i < numBricks; i++){
+            BoardLine lineReader = new BoardLine(boardLines.get(line + 1 + i));
+            String brickType = lineReader.next();
+            if(!brickType.equals("Paddle") && !brickType.equals("Wall") && !brickType.equals("BottomWall")){
+                boardBricks.add(Game.parseBrick(brickType, lineReader));
+            }
+        }
+        return boardBricks;
+    }
+
+    private static void printReport(String filename, List<String> boardLines, RunResult[] results, long seed, String policy, int maxTicks, double seconds){
+        //add up the runs in order, so the totals come out the same no matter how the runs were scheduled
+        int cleared = 0;
+        long clearTicks = 0;
+        long livesLost = 0;
+        List<Brick> boardBricks = readBricks(boardLines);
+        long[] hits = new long[boardBricks.size()];
+        for(RunResult result : results){
+            if(result.cleared){
+                cleared++;
+                clearTicks += result.ticks;
+            }
+            livesLost += result.livesLost;
+            for(int i = 0; i < hits.length; i++){
+                hits[i] += result.brickHits[i];
+            }
+        }
+        int runs = results.length;
+
+        System.out.println("Board: " + filename);
+        System.out.printf("Runs: %d (seed %d, %s paddle, at most %d ticks each) in %.2f s on %d cores%n",
+                runs, seed, policy, maxTicks, seconds, Runtime.getRuntime().availableProcessors());
+        System.out.printf("Clear rate: %.1f%%%n", runs == 0 ? 0.0 : 100.0 * cleared / runs);
+        if(cleared > 0){
+            System.out.printf("Mean ticks to clear: %.1f%n", (double) clearTicks / cleared);
+        }
+        else{
+            System.out.println("Mean ticks to clear: never cleared");
+        }
+        System.out.printf("Mean lives lost: %.2f%n", runs == 0 ? 0.0 : (double) livesLost / runs);
+
+        //the heatmap shows each brick's share of the hits as a bar, scaled so the most-hit brick has the longest bar
+        long mostHits = 1;
+        for(long brickHits : hits){
+            mostHits = Math.max(mostHits, brickHits);
+        }
+        System.out.println("Hits per run on each brick:");
+        if(boardLines.get(0).startsWith("Scrolling")){
+            System.out.println("  (only the bricks listed before the Level line are counted)");
+        }
+        for(int i = 0; i < hits.length; i++){
+            Brick thisBrick = boardBricks.get(i);
+            System.out.printf("  %-12s (%6.1f, %6.1f) %8.2f %s%n", thisBrick.getClass().getSimpleName(),
+                    thisBrick.getxPosition(), thisBrick.getyPosition(), runs == 0 ? 0.0 : (double) hits[i] / runs,
+                    "#".repeat((int) (40 * hits[i] / mostHits)));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+import java.io.FileNotFoundException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps recently used boards in memory so that replaying or restarting one doesn't read its file again.
+ * When the boards take up more than a set amount of memory, the one that was used least recently is dropped.
+ * It is safe to use from several threads at once.
+ */
+public class BoardCache {
+    private final long MAXBYTES;
+
+    private LinkedHashMap<String, ParsedBoard> boards; //in order from least to most recently used
+    private long totalBytes;
+
+    /**
+     * Creates an empty cache.
+     * @param maxBytes roughly how much memory the cached boards may take up
+     */
+    public BoardCache(long maxBytes){
+        MAXBYTES = maxBytes;
+        boards = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Finds a board in the cache, reading it from its file if it isn't there.
+     * @param filename the name of the board file
+     * @return the parsed board
+     */
+    public ParsedBoard get(String filename) throws FileNotFoundException {
+        synchronized(this){
+            ParsedBoard cached = boards.get(filename);
+            if(cached != null){
+                return cached;
+            }
+        }
+
+        //read the file without holding the lock, so other threads can use boards that are already cached in the meantime
+        ParsedBoard parsed = ParsedBoard.read(filename);
+
+        synchronized(this){
+            ParsedBoard previous = boards.put(filename, parsed);
+            if(previous != null){
+                totalBytes -= previous.getSize();
+            }
+            totalBytes += parsed.getSize();
+
+            //drop the least recently used boards, but never the one that was just read
+            Iterator<Map.Entry<String, ParsedBoard>> oldest = boards.entrySet().iterator();
+            while(totalBytes > MAXBYTES && boards.size() > 1){
+                Map.Entry<String, ParsedBoard> entry = oldest.next();
+                totalBytes -= entry.getValue().getSize();
+                oldest.remove();
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * This method retrieves the number of boards in the cache.
+     * @return the number of cached boards
+     */
+    public synchronized int size(){
+        return boards.size();
+    }
+}
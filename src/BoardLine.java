@@ -0,0 +1,51 @@
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the space-separated values on one line of a board file, the same way a Scanner would.
+ * A Scanner works out number formats for the current locale every time it is created, which made reading large boards
+ * and streaming scrolling levels slow, so board lines are split and parsed directly instead.
+ */
+public class BoardLine {
+    private String[] tokens;
+    private int next;
+
+    /**
+     * @param line one line of a board file
+     */
+    public BoardLine(String line){
+        String trimmed = line.trim();
+        tokens = trimmed.isEmpty() ? new String[0] : trimmed.split("\\s+");
+    }
+
+    /**
+     * @return true if there are values on the line that haven't been read yet
+     */
+    public boolean hasNext(){
+        return next < tokens.length;
+    }
+
+    /**
+     * @return the next value on the line
+     * @throws NoSuchElementException if every value on the line has already been read
+     */
+    public String next(){
+        if(next >= tokens.length){
+            throw new NoSuchElementException("The line ends too early");
+        }
+        return tokens[next++];
+    }
+
+    /**
+     * @return the next value on the line, as an integer
+     */
+    public int nextInt(){
+        return Integer.parseInt(next());
+    }
+
+    /**
+     * @return the next value on the line, as a double
+     */
+    public double nextDouble(){
+        return Double.parseDouble(next());
+    }
+}
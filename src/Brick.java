@@ -41,7 +41,7 @@ public class Brick extends Drawable {
      * Determines whether this Brick is colliding with a given projectile in the current time step. If it detects a collision, it determines which side of the brick the ball collided with.
      * This method only has a certain window of detection. Be wary of clipping if the ball is moving very quickly.
      * @param incoming the projectile to check for a collision with this Brick.
-     * @return 0 if there is no collision, 1 if the collision is with the top of the brick, 2 if with the right, 3 if with the bottom, 4 if with the left
+     * @return 0 if there is no collision, 1 if the collision is with the top of the brick, 2 if with the right, 3 if with the bottom, 4 if with the left. A ShapedBrick returns 5 for any collision.
      */
     public int detectCollision(Projectile incoming){
         //remember that down is the positive y direction
@@ -92,9 +92,4 @@ public class Brick extends Drawable {
             }
         }
     }
-
-    @Override
-    public int hashCode(){
-        return (int)(height*13+width*7+getxPosition()*17+getyPosition()*19);
-    }
 }
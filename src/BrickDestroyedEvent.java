@@ -0,0 +1,17 @@
+import jdk.jfr.*;
+
+/**
+ * A Flight Recorder event recorded whenever a regular brick's durability reaches zero and it is removed from the board.
+ */
+@Name("breakout.BrickDestroyed")
+@Label("Brick Destroyed")
+@Category("Breakout")
+@Enabled(false)
+@StackTrace(false)
+public class BrickDestroyedEvent extends Event {
+    @Label("X Position")
+    double xPosition;
+
+    @Label("Y Position")
+    double yPosition;
+}
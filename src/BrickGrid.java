@@ -0,0 +1,117 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A collision index for bricks that move. The board is divided into square cells and each brick is listed in every cell its bounding box touches.
+ * Instead of being rebuilt every tick, a brick is only taken out of and put back into cells when it crosses into different ones.
+ * Cells are hashed into a fixed number of buckets, so a brick can move anywhere without the grid needing to know the board's size.
+ */
+public class BrickGrid {
+    private final double CELLSIZE;
+    private final int BUCKETMASK;
+
+    private List<MovingBrick>[] buckets;
+    private int queryStamp; //bumped by every query so that a brick in several of the cells being searched is only found once
+
+    /**
+     * Creates an empty grid.
+     * @param cellSize the width and height of each cell. This works best when it is a bit larger than a typical brick.
+     * @param expectedBricks roughly how many bricks will be put in the grid, used to decide how many buckets to make
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public BrickGrid(double cellSize, int expectedBricks){
+        CELLSIZE = cellSize;
+        int bucketCount = Integer.highestOneBit(Math.max(64, expectedBricks * 2) - 1) << 1;
+        BUCKETMASK = bucketCount - 1;
+        buckets = new List[bucketCount];
+        for(int i = 0; i < bucketCount; i++){
+            buckets[i] = new ArrayList<>(4);
+        }
+    }
+
+    private int bucket(int cellX, int cellY){
+        int hash = cellX * 0x9E3779B1 + cellY * 0x85EBCA77;
+        return (hash ^ (hash >>> 15)) & BUCKETMASK;
+    }
+
+    private int cell(double position){
+        return (int)Math.floor(position / CELLSIZE);
+    }
+
+    /**
+     * Puts a brick in every cell it currently touches.
+     * @param thisBrick the brick to add
+     */
+    public void add(MovingBrick thisBrick){
+        thisBrick.minCellX = cell(thisBrick.getxPosition() - thisBrick.getWidth()/2.0);
+        thisBrick.minCellY = cell(thisBrick.getyPosition() - thisBrick.getHeight()/2.0);
+        thisBrick.maxCellX = cell(thisBrick.getxPosition() + thisBrick.getWidth()/2.0);
+        thisBrick.maxCellY = cell(thisBrick.getyPosition() + thisBrick.getHeight()/2.0);
+        for(int x = thisBrick.minCellX; x <= thisBrick.maxCellX; x++){
+            for(int y = thisBrick.minCellY; y <= thisBrick.maxCellY; y++){
+                buckets[bucket(x, y)].add(thisBrick);
+            }
+        }
+    }
+
+    /**
+     * Takes a brick out of every cell it was last put in.
+     * @param thisBrick the brick to remove
+     */
+    public void remove(MovingBrick thisBrick){
+        for(int x = thisBrick.minCellX; x <= thisBrick.maxCellX; x++){
+            for(int y = thisBrick.minCellY; y <= thisBrick.maxCellY; y++){
+                List<MovingBrick> thisBucket = buckets[bucket(x, y)];
+                int index = thisBucket.indexOf(thisBrick);
+                if(index >= 0){
+                    //order doesn't matter, so fill the hole with the last brick instead of shifting everything down
+                    thisBucket.set(index, thisBucket.get(thisBucket.size() - 1));
+                    thisBucket.remove(thisBucket.size() - 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Call this after a brick moves. It only touches the grid if the brick has crossed into a different set of cells.
+     * @param thisBrick the brick that moved
+     */
+    public void move(MovingBrick thisBrick){
+        int minX = cell(thisBrick.getxPosition() - thisBrick.getWidth()/2.0);
+        int minY = cell(thisBrick.getyPosition() - thisBrick.getHeight()/2.0);
+        int maxX = cell(thisBrick.getxPosition() + thisBrick.getWidth()/2.0);
+        int maxY = cell(thisBrick.getyPosition() + thisBrick.getHeight()/2.0);
+        if(minX == thisBrick.minCellX && minY == thisBrick.minCellY && maxX == thisBrick.maxCellX && maxY == thisBrick.maxCellY){
+            return;
+        }
+        remove(thisBrick);
+        add(thisBrick);
+    }
+
+    /**
+     * Finds every brick whose bounding box is within a projectile's radius of the projectile's center.
+     * @param incoming the projectile to look for bricks around
+     * @param found the list to add the bricks that were found to
+     */
+    public void query(Projectile incoming, List<Brick> found){
+        double x = incoming.getxPosition();
+        double y = incoming.getyPosition();
+        double r = incoming.getRadius();
+        queryStamp++;
+
+        for(int cellX = cell(x - r); cellX <= cell(x + r); cellX++){
+            for(int cellY = cell(y - r); cellY <= cell(y + r); cellY++){
+                List<MovingBrick> thisBucket = buckets[bucket(cellX, cellY)];
+                for(int i = 0; i < thisBucket.size(); i++){
+                    MovingBrick thisBrick = thisBucket.get(i);
+                    if(thisBrick.queryStamp != queryStamp
+                            && Math.abs(x - thisBrick.getxPosition()) <= r + thisBrick.getWidth()/2.0
+                            && Math.abs(y - thisBrick.getyPosition()) <= r + thisBrick.getHeight()/2.0){
+                        thisBrick.queryStamp = queryStamp;
+                        found.add(thisBrick);
+                    }
+                }
+            }
+        }
+    }
+}
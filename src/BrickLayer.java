@@ -0,0 +1,87 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * Draws every brick on the board into one image, instead of making a JLabel for each brick every frame, so that boards with
+ * tens of thousands of bricks can still be drawn at full speed. Like ParticleSystem, it draws into a back image while the GUI
+ * paints the front one.
+ */
+public class BrickLayer extends JComponent {
+    private static final long serialVersionUID = 1L;
+
+    private final int WIDTH;
+    private final int HEIGHT;
+
+    private final BufferedImage[] images = new BufferedImage[2];
+    private final int[][] pixels = new int[2][];
+    private volatile int front;
+
+    /**
+     * Creates an empty layer.
+     * @param width the width of the area the bricks are drawn in
+     * @param height the height of the area the bricks are drawn in
+     */
+    public BrickLayer(int width, int height){
+        WIDTH = width;
+        HEIGHT = height;
+
+        for(int i = 0; i < 2; i++){
+            images[i] = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            pixels[i] = ((DataBufferInt) images[i].getRaster().getDataBuffer()).getData();
+        }
+
+        this.setOpaque(false);
+        this.setBounds(0, 0, width, height);
+    }
+
+    /**
+     * Draws the bricks into the back image, then makes it the image the GUI paints.
+     * This is meant to be called once per frame by the same thread that updates the bricks.
+     * @param bricks the bricks to draw
+     * @param viewOffset the level's y-coordinate at the top of the view, for scrolling levels
+     */
+    public void render(Iterable<Brick> bricks, int viewOffset){
+        int back = 1 - front;
+        int[] target = pixels[back];
+        Arrays.fill(target, 0);
+
+        Graphics2D shapes = null; //only made if there are shaped bricks to draw
+        for(Brick thisBrick : bricks){
+            if(thisBrick instanceof ShapedBrick){
+                if(shapes == null){
+                    shapes = images[back].createGraphics();
+                    shapes.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                    shapes.translate(0, -viewOffset);
+                }
+                shapes.setColor(thisBrick.getColor());
+                shapes.fill(((ShapedBrick) thisBrick).getShape());
+                continue;
+            }
+
+            //rectangles are filled straight into the pixels, clipped to the image
+            int left = (int)(thisBrick.getxPosition() - thisBrick.getWidth()/2);
+            int top = (int)(thisBrick.getyPosition() - thisBrick.getHeight()/2) - viewOffset;
+            int right = Math.min(WIDTH, left + thisBrick.getWidth());
+            int bottom = Math.min(HEIGHT, top + thisBrick.getHeight());
+            int argb = thisBrick.getColor().getRGB();
+            for(int y = Math.max(0, top); y < bottom; y++){
+                int row = y*WIDTH;
+                for(int x = Math.max(0, left); x < right; x++){
+                    target[row + x] = argb;
+                }
+            }
+        }
+        if(shapes != null){
+            shapes.dispose();
+        }
+        front = back;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g){
+        g.drawImage(images[front], 0, 0, null);
+    }
+}
@@ -0,0 +1,207 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounding volume hierarchy over the static bricks of a board. It is built once when the board is loaded, so that each projectile
+ * only has to be checked against the few bricks whose bounding boxes it overlaps instead of every brick on the board.
+ * When a brick is removed, the boxes on the path from its leaf to the root are shrunk to fit whatever is left.
+ */
+public class BrickTree {
+    private final int LEAFSIZE = 4; //the most bricks a leaf node will hold
+
+    //node i's bounding box. A node with nothing left in it has an inverted box, so no query ever overlaps it
+    private double[] minX;
+    private double[] minY;
+    private double[] maxX;
+    private double[] maxY;
+    private int[] left; //the index of node i's left child, or -1 if it is a leaf
+    private int[] right;
+    private int[] parent;
+    private int[] first; //a leaf's bricks are slots first[i] to first[i]+size[i]-1 of leafBricks
+    private int[] size;
+    private int nodeCount;
+
+    private Brick[] leafBricks;
+    private Map<Brick, Integer> slotOf; //where each brick lives in leafBricks
+    private int[] leafOfSlot;
+    private int[] stack; //reused by every query so that queries don't allocate
+
+    /**
+     * Builds the hierarchy by repeatedly splitting the bricks in half along the longer axis of their bounding box.
+     * @param bricks the bricks to put in the hierarchy. These should not move while they are in it.
+     */
+    public BrickTree(Iterable<Brick> bricks){
+        int count = 0;
+        for(Brick thisBrick : bricks){
+            count++;
+        }
+        leafBricks = new Brick[count];
+        count = 0;
+        for(Brick thisBrick : bricks){
+            leafBricks[count++] = thisBrick;
+        }
+
+        int maxNodes = Math.max(1, 2*count);
+        minX = new double[maxNodes];
+        minY = new double[maxNodes];
+        maxX = new double[maxNodes];
+        maxY = new double[maxNodes];
+        left = new int[maxNodes];
+        right = new int[maxNodes];
+        parent = new int[maxNodes];
+        first = new int[maxNodes];
+        size = new int[maxNodes];
+        leafOfSlot = new int[count];
+        stack = new int[64];
+
+        build(0, count, -1);
+
+        slotOf = new HashMap<>();
+        for(int i = 0; i < count; i++){
+            slotOf.put(leafBricks[i], i);
+        }
+    }
+
+    private int build(int start, int end, int parentNode){
+        int node = nodeCount++;
+        parent[node] = parentNode;
+        left[node] = -1;
+        right[node] = -1;
+        first[node] = start;
+        size[node] = end - start;
+        fit(node);
+
+        if(end - start <= LEAFSIZE){
+            for(int i = start; i < end; i++){
+                leafOfSlot[i] = node;
+            }
+            return node;
+        }
+
+        //split at the median of whichever axis the bricks are more spread out along
+        boolean splitX = (maxX[node] - minX[node]) >= (maxY[node] - minY[node]);
+        int mid = (start + end) / 2;
+        select(start, end - 1, mid, splitX);
+
+        left[node] = build(start, mid, node);
+        right[node] = build(mid, end, node);
+        return node;
+    }
+
+    //quickselect, so that the bricks before mid all have smaller centers than the ones after it
+    private void select(int lo, int hi, int mid, boolean splitX){
+        while(lo < hi){
+            double pivot = center(leafBricks[(lo + hi) >>> 1], splitX);
+            int i = lo;
+            int j = hi;
+            while(i <= j){
+                while(center(leafBricks[i], splitX) < pivot) i++;
+                while(center(leafBricks[j], splitX) > pivot) j--;
+                if(i <= j){
+                    Brick temp = leafBricks[i];
+                    leafBricks[i] = leafBricks[j];
+                    leafBricks[j] = temp;
+                    i++;
+                    j--;
+                }
+            }
+            if(mid <= j){
+                hi = j;
+            }
+            else if(mid >= i){
+                lo = i;
+            }
+            else{
+                return;
+            }
+        }
+    }
+
+    private double center(Brick thisBrick, boolean xAxis){
+        return xAxis ? thisBrick.getxPosition() : thisBrick.getyPosition();
+    }
+
+    //recompute a node's box from its children, or from its bricks if it is a leaf
+    private void fit(int node){
+        minX[node] = Double.POSITIVE_INFINITY;
+        minY[node] = Double.POSITIVE_INFINITY;
+        maxX[node] = Double.NEGATIVE_INFINITY;
+        maxY[node] = Double.NEGATIVE_INFINITY;
+
+        if(left[node] >= 0){
+            int l = left[node];
+            int r = right[node];
+            minX[node] = Math.min(minX[l], minX[r]);
+            minY[node] = Math.min(minY[l], minY[r]);
+            maxX[node] = Math.max(maxX[l], maxX[r]);
+            maxY[node] = Math.max(maxY[l], maxY[r]);
+            return;
+        }
+        for(int i = first[node]; i < first[node] + size[node]; i++){
+            Brick thisBrick = leafBricks[i];
+            if(thisBrick == null){
+                continue;
+            }
+            minX[node] = Math.min(minX[node], thisBrick.getxPosition() - thisBrick.getWidth()/2.0);
+            minY[node] = Math.min(minY[node], thisBrick.getyPosition() - thisBrick.getHeight()/2.0);
+            maxX[node] = Math.max(maxX[node], thisBrick.getxPosition() + thisBrick.getWidth()/2.0);
+            maxY[node] = Math.max(maxY[node], thisBrick.getyPosition() + thisBrick.getHeight()/2.0);
+        }
+    }
+
+    /**
+     * Takes a brick out of the hierarchy and shrinks the boxes above it. Removing a brick that isn't in the hierarchy does nothing.
+     * @param thisBrick the brick to remove
+     */
+    public void remove(Brick thisBrick){
+        Integer slot = slotOf.remove(thisBrick);
+        if(slot == null){
+            return;
+        }
+        leafBricks[slot] = null;
+        for(int node = leafOfSlot[slot]; node >= 0; node = parent[node]){
+            fit(node);
+        }
+    }
+
+    /**
+     * Finds every brick whose bounding box is within a projectile's radius of the projectile's center.
+     * @param incoming the projectile to look for bricks around
+     * @param found the list to add the bricks that were found to
+     */
+    public void query(Projectile incoming, List<Brick> found){
+        if(nodeCount == 0){
+            return;
+        }
+        double x = incoming.getxPosition();
+        double y = incoming.getyPosition();
+        double r = incoming.getRadius();
+
+        int top = 0;
+        stack[top++] = 0;
+        while(top > 0){
+            int node = stack[--top];
+            if(x + r < minX[node] || x - r > maxX[node] || y + r < minY[node] || y - r > maxY[node]){
+                continue;
+            }
+            if(left[node] < 0){
+                for(int i = first[node]; i < first[node] + size[node]; i++){
+                    Brick thisBrick = leafBricks[i];
+                    if(thisBrick != null
+                            && Math.abs(x - thisBrick.getxPosition()) <= r + thisBrick.getWidth()/2.0
+                            && Math.abs(y - thisBrick.getyPosition()) <= r + thisBrick.getHeight()/2.0){
+                        found.add(thisBrick);
+                    }
+                }
+                continue;
+            }
+            if(top + 2 > stack.length){
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[top++] = left[node];
+            stack[top++] = right[node];
+        }
+    }
+}
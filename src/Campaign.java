@@ -0,0 +1,151 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.*;
+
+/**
+ * Plays a list of boards one after another in the same window. While a level is being played, the next level and a spare copy of the
+ * current one (in case the player loses and retries) are built on a background thread, so there is no wait between levels.
+ * Boards are kept in a BoardCache, so a level that is replayed doesn't have to be read from its file again.
+ */
+public class Campaign {
+    private final int CONTINUES = 3; //how many times the player may retry each level before the campaign is over
+    private final long CACHEBYTES = 32L * 1024 * 1024;
+
+    private List<String> levelFiles;
+    private BoardCache cache;
+    private Random seeds;
+    private ExecutorService loader;
+
+    /**
+     * Reads a campaign file. Its first line is the word Campaign, and every line after that is the name of a board file to play, in order.
+     * Board names are relative to the folder the campaign file is in, and every board has to exist before the campaign starts.
+     * @param filename the name of the campaign file
+     */
+    public Campaign(String filename) throws FileNotFoundException {
+        File campaignFile = new File(filename);
+        Scanner fileIn = new Scanner(campaignFile);
+        fileIn.nextLine(); //skip the Campaign line
+
+        levelFiles = new ArrayList<>();
+        while(fileIn.hasNextLine()){
+            String line = fileIn.nextLine().trim();
+            if(!line.isEmpty()){
+                File levelFile = new File(line);
+                if(!levelFile.isAbsolute()){
+                    levelFile = new File(campaignFile.getAbsoluteFile().getParentFile(), line);
+                }
+                if(!levelFile.isFile()){
+                    throw new FileNotFoundException(levelFile.getPath() + " is listed in " + filename + " but doesn't exist");
+                }
+                levelFiles.add(levelFile.getPath());
+            }
+        }
+        fileIn.close();
+
+        cache = new BoardCache(CACHEBYTES);
+        seeds = new Random();
+    }
+
+    /**
+     * Determines whether a file is a campaign rather than a single board.
+     * @param filename the name of the file
+     * @return true if the file's first line is the word Campaign
+     */
+    public static boolean isCampaign(String filename) throws FileNotFoundException {
+        Scanner fileIn = new Scanner(new File(filename));
+        boolean campaign = fileIn.hasNextLine() && fileIn.nextLine().trim().equals("Campaign");
+        fileIn.close();
+        return campaign;
+    }
+
+    /**
+     * Plays every level in order. Losing a level restarts it, until the player runs out of continues for that level.
+     */
+    public void play(){
+        if(levelFiles.isEmpty()){
+            return;
+        }
+        loader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "level loader");
+            thread.setDaemon(true); //closing the window should end the program even if a level is still loading
+            return thread;
+        });
+        MyFrame window = new MyFrame();
+        ResultsStore results = Game.openResults(); //shared by every level, so saving a result never stalls a level change
+
+        int level = 0;
+        int continuesLeft = CONTINUES;
+        Future<Game> current = prefetch(level);
+        Future<Game> next = null;
+        boolean won;
+        while(true){
+            Game game = await(current);
+
+            //get the next level and a spare copy of this one ready while this one is played
+            if(next == null && level + 1 < levelFiles.size()){
+                next = prefetch(level + 1);
+            }
+            current = prefetch(level);
+
+            game.attach(window);
+            game.saveResultsTo(results);
+            won = game.play();
+            game.detach();
+
+            if(won){
+                level++;
+                if(level == levelFiles.size()){
+                    break;
+                }
+                current.cancel(false);
+                current = next;
+                next = null;
+                continuesLeft = CONTINUES; //every level gets its own retries
+            }
+            else if(continuesLeft > 0){
+                continuesLeft--;
+            }
+            else{
+                break;
+            }
+        }
+        loader.shutdownNow();
+        Game.closeResults(results);
+        Game.showResult(window, won);
+    }
+
+    /**
+     * Starts building a level on the background thread.
+     * @param level the number of the level to build
+     * @return the level's game, once it is ready
+     */
+    private Future<Game> prefetch(int level){
+        String filename = levelFiles.get(level);
+        long seed = seeds.nextLong();
+        return loader.submit(() -> {
+            Game game = new Game(cache.get(filename), seed);
+            game.prepareToDraw();
+            return game;
+        });
+    }
+
+    /**
+     * Waits for a level to finish being built. This only actually waits if the player finished the previous level faster than it could be built.
+     */
+    private Game await(Future<Game> level){
+        try{
+            return level.get();
+        }
+        catch (ExecutionException e){
+            throw new RuntimeException("A level couldn't be loaded", e.getCause());
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+
+/**
+ * A round brick. The ball bounces off of it along the line between their centers.
+ */
+public class CircleBrick extends ShapedBrick {
+    private double radius;
+
+    /**
+     * Initialize a CircleBrick
+     * @param radius the radius of the brick
+     * @param xPos the horizontal position of the brick's center
+     * @param yPos the vertical position of the brick's center
+     * @param color the starting color of this brick
+     */
+    public CircleBrick(double radius, double xPos, double yPos, Color color){
+        super((int)Math.ceil(2*radius), (int)Math.ceil(2*radius), xPos, yPos, color);
+        this.radius = radius;
+    }
+
+    @Override
+    protected boolean findNormal(Projectile incoming){
+        double dX = incoming.getxPosition() - this.getxPosition();
+        double dY = incoming.getyPosition() - this.getyPosition();
+        double reach = radius + incoming.getRadius();
+        double distSquared = dX*dX + dY*dY;
+        if(distSquared > reach*reach){
+            return false;
+        }
+        double dist = Math.sqrt(distSquared);
+        if(dist == 0){
+            normalX = 0; //the ball is exactly on the center, so just send it up
+            normalY = -1;
+            return true;
+        }
+        normalX = dX/dist;
+        normalY = dY/dist;
+        return true;
+    }
+
+    @Override
+    public Shape getShape(){
+        return new Ellipse2D.Double(this.getxPosition() - radius, this.getyPosition() - radius, 2*radius, 2*radius);
+    }
+}
@@ -4,6 +4,8 @@ import java.awt.*;
  * DeathBricks differ from regular bricks in that the player loses a life whenever the ball collides with a DeathBrick
  */
 public class DeathBrick extends Brick{
+    private Game game;
+
     /**
      * Instantiates a deathbrick object
      * @param height
@@ -11,13 +13,15 @@ public class DeathBrick extends Brick{
      * @param xPos
      * @param yPos
      * @param col the brick's color. By convention, this is black.
+     * @param game the game that loses a life when the ball hits this brick
      */
-    public DeathBrick(int height, int width, double xPos, double yPos, Color col){
+    public DeathBrick(int height, int width, double xPos, double yPos, Color col, Game game){
         super(height, width, xPos, yPos, col);
+        this.game = game;
     }
 
     /**
-     * Calls the collide method from the parent class, then decrements the number of lives in the Game class.
+     * Calls the collide method from the parent class, then decrements the number of lives in the Game this brick belongs to.
      * @param incoming the projectile that has collided with this brick
      * @param collisionSide 1 for top, 2 for right, 3 for bottom, 4 for left
      */
@@ -25,7 +29,13 @@ public class DeathBrick extends Brick{
     public void collide(Projectile incoming, int collisionSide){
         super.collide(incoming, collisionSide);
         if(incoming instanceof Ball) {
-            Game.loseLife();
+            game.loseLife();
+
+            LifeLostEvent lostEvent = new LifeLostEvent();
+            if(lostEvent.shouldCommit()){
+                lostEvent.xPosition = incoming.getxPosition();
+                lostEvent.commit();
+            }
         }
     }
 }
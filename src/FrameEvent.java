@@ -0,0 +1,13 @@
+import jdk.jfr.*;
+
+/**
+ * A Flight Recorder event covering one call to Game.drawFrame(). The duration of the event is the time it took to build and show the frame.
+ */
+@Name("breakout.Frame")
+@Label("Frame")
+@Category("Breakout")
+@Description("One frame drawn on the GUI")
+@Enabled(false)
+@StackTrace(false)
+public class FrameEvent extends Event {
+}
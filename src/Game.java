@@ -6,6 +6,7 @@ import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.*;
 import java.util.List;
 
@@ -18,14 +19,48 @@ public class Game implements KeyListener {
     private final int TICKRATE = 100;
     private final double TICKTIME = (1.0/TICKRATE) * 1000;
     private final int POWERUPFREQ = 4000; //a larger number makes powerups less frequent
-
-    private static int lives;
+    private final int MAXPARTICLES = 100000;
+    private final int BURSTSIZE = 80; //the number of particles a destroyed brick breaks into
+    private final int TRAILSIZE = 2; //the number of particles each ball leaves behind every tick
+    private final double MOVINGCELLSIZE = 64; //the size of the cells moving bricks are sorted into for collision checks
+    private final int VIEWHEIGHT = 500; //the height of the part of the level that can be seen at once
+    private final int CHUNKMARGIN = 50; //how far outside of the view a chunk has to be before it is thrown away
+    private final int HITPOINTS = 10; //the score for hitting a brick
+    private final int BREAKPOINTS = 50; //the extra score for breaking a brick
+    private static final String RESULTSFILE = "results.dat"; //where the results of games played in a window are saved
+
+    private int lives;
     private double paddleSpeed;
     private boolean paused = true;
+    private long seed;
+    private Random rand; //every random choice the game makes comes from here, so a seeded game always plays out the same way
+    private String boardName; //the name of the board file this game was started from, or null if it was started from lines of text
+    private ResultsStore results; //where this game's result is added when it ends, or null to not save it
+    private int score;
+    private int bricksBroken;
+    private long updateNanos; //the total time spent in update()
+    private long maxUpdateNanos; //the longest any single call to update() has taken
 
     private List<Drawable> gameObjects; //the walls are just giant bricks that get put in this List
     private Queue<Powerup> powerups; //the powerups in the queue are not drawn or updated. Every once in a while, the update method removes them from the queue and adds them to gameObjects
     private Map<Brick, Integer> bricks; //stores all the bricks with their durabilities
+    private BrickTree brickTree; //the bricks in the bricks map that don't move, arranged so that collisions can be checked without looking at every brick
+    private List<MovingBrick> movingBricks; //the bricks in the bricks map that do move
+    private BrickGrid brickGrid; //the same bricks as movingBricks, kept up to date as they move
+    private long tickCount; //the number of times update() has been called
+    private List<Brick> nearbyBricks = new ArrayList<>(); //reused every tick to hold the bricks that might be touching a projectile
+    private ParticleSystem particles; //brick debris and ball trails. These are purely visual and never collide with anything. Null for games that are never drawn
+    private BrickLayer brickLayer; //draws every brick in one image. Null for a game that isn't drawn
+    private List<Brick> boardBricks; //the regular bricks in the order they appear in the board file
+    private Map<Brick, Integer> brickNumbers; //each regular brick's position in boardBricks
+    private int[] brickHits; //how many times the ball has hit each brick in boardBricks
+
+    //only used by scrolling levels. Everything is positioned in level coordinates, and the view is the part of the level between viewTop and viewTop+VIEWHEIGHT
+    private LevelStream level; //null if the level doesn't scroll
+    private Map<Integer, LevelChunk> residentChunks; //the chunks of the level that are near enough to the view to be loaded
+    private double viewTop;
+    private double scrollSpeed; //how far the view moves up the level every tick
+    private double playfieldBottom; //the top of the paddle or bottom wall on the screen. A scrolling level's bricks that pass below it can't be hit any more
 
     private MyFrame board;
     private JLabel paddleLabel;
@@ -39,125 +74,454 @@ public class Game implements KeyListener {
      * Every brick's type must be followed by four space-separated integers, height, width, xPosition, and yPosition.
      * The Paddle has two additional integers and a double, representing the minimum x-position of its left side, the maximum x-position of its right side, and the paddle's initial speed.
      * A regular brick has an additional integer between 1 and 4 inclusive, which represents its starting durability.
+     * Bricks that aren't rectangles replace the four integers with their own dimensions, and are also followed by a durability:
+     * a Circle has a double radius, xPosition, and yPosition.
+     * A Rotated brick has integer height and width, double xPosition and yPosition, and a double angle in degrees to rotate it clockwise.
+     * A Polygon has double xPosition and yPosition, an integer number of corners, then the x and y offset of each corner from that position. It must be convex.
+     * A Patrol brick has integer height and width, double xPosition and yPosition, then the double x and y position of the other end of its path and its double speed.
+     * An Oscillate brick has integer height and width, double xPosition and yPosition, then double horizontal and vertical amplitudes and a double period in ticks.
      * This is followed by a line with an integer for the number of powerups to be initialized.
      * Each powerup line contains a string with the name of the powerup, a value from the set {ExtraLife, SlowPaddle, FastPaddle} followed by two integers: the minimum and maximum x-Positions as bounds for where the powerup will be randomly spawned.
      * Next is a line with an integer for the number of balls to be initialized, then one line for each ball with int radius, double xPosition, double yPosition, double xVelocity, and double yVelocity.
+     * A scrolling level starts with an extra line: the word Scrolling followed by the double height of the whole level, the double height of each chunk, and the double scroll speed.
+     * The view starts at the bottom of the level and scrolls up until it reaches the top. The walls, paddle and balls above are positioned relative to the view, and move along with it.
+     * After them comes a line with the word Level, then the level's bricks as described in LevelStream. They are only read in when the view gets close to them.
      */
     public Game(String filename) throws FileNotFoundException {
+        this(readBoard(filename), openLevel(filename), new Random().nextLong());
+        boardName = new File(filename).getName();
+        attach(new MyFrame());
+    }
+
+    /**
+     * Initialize a game from a board that has already been read. Like Game(List, long), the game isn't drawn until it is attached to a window.
+     * @param parsed the board to play
+     * @param seed the seed for every random choice the game makes
+     */
+    public Game(ParsedBoard parsed, long seed){
+        this(parsed.getLines(), parsed.getLevel(), seed);
+        boardName = parsed.getName();
+    }
+
+    /**
+     * Initialize a game that isn't drawn and doesn't listen to the keyboard until it is attached to a window, so that it can be played by calling update() directly.
+     * Games like this don't share any state, so many of them can be run at once on different threads.
+     * @param boardLines the lines of a board file, in the format described in Game(String)
+     * @param seed the seed for every random choice the game makes. Two games with the same board, seed and paddle movements play out identically.
+     */
+    public Game(List<String> boardLines, long seed){
+        this(boardLines, null, seed);
+    }
+
+    private Game(List<String> boardLines, LevelStream level, long seed){
 
         lives = 3;
+        this.seed = seed;
+        this.rand = new Random(seed);
         gameObjects = new ArrayList<>();
         powerups = new LinkedList<>();
         bricks = new HashMap<>();
+        boardBricks = new ArrayList<>();
+        brickNumbers = new HashMap<>();
+        movingBricks = new ArrayList<>();
 
-        board = new MyFrame();
-        board.addKeyListener(this);
+        Iterator<String> fileIn = boardLines.iterator();
+        BoardLine lineReader;
 
-        File boardFile = new File(filename);
-        Scanner fileIn = new Scanner(boardFile);
-        Scanner lineReader;
+        String firstLine = fileIn.next();
+        if(firstLine.startsWith("Scrolling")){
+            if(level == null){
+                throw new IllegalArgumentException("A scrolling level has to be streamed from its file");
+            }
+            this.level = level;
+            lineReader = new BoardLine(firstLine);
+            lineReader.next(); //skip the name
+            double levelHeight = lineReader.nextDouble();
+            lineReader.nextDouble(); //the chunk height was already read by openLevel()
+            scrollSpeed = lineReader.nextDouble();
+            viewTop = Math.max(0, levelHeight - VIEWHEIGHT);
+            residentChunks = new HashMap<>();
+            firstLine = fileIn.next();
+        }
 
         //read in the bricks (including walls and paddle
-        int numBricks = Integer.parseInt(fileIn.nextLine());
+        playfieldBottom = VIEWHEIGHT;
+        int numBricks = Integer.parseInt(firstLine);
         for(int i=0; i<numBricks; i++){
-            lineReader = new Scanner(fileIn.nextLine());
+            lineReader = new BoardLine(fileIn.next());
             String brickType = lineReader.next();
 
             if(brickType.equals("Paddle")){
-                gameObjects.add(new Paddle(lineReader.nextInt(), lineReader.nextInt(), lineReader.nextDouble(), lineReader.nextDouble(), new Color(28, 0, 150, 255), lineReader.nextInt(), lineReader.nextInt()));
+                Paddle newPaddle = new Paddle(lineReader.nextInt(), lineReader.nextInt(), lineReader.nextDouble(), lineReader.nextDouble(), new Color(28, 0, 150, 255), lineReader.nextInt(), lineReader.nextInt());
+                gameObjects.add(newPaddle);
+                playfieldBottom = Math.min(playfieldBottom, newPaddle.getyPosition() - newPaddle.getHeight()/2.0);
                 paddleSpeed = lineReader.nextDouble();
             }
             else if(brickType.equals("Wall")){
                 gameObjects.add(new Brick(lineReader.nextInt(), lineReader.nextInt(), lineReader.nextDouble(), lineReader.nextDouble(), new Color(1, 21, 241, 255)));
             }
             else if(brickType.equals("BottomWall")){
-                gameObjects.add(new DeathBrick(lineReader.nextInt(), lineReader.nextInt(), lineReader.nextDouble(), lineReader.nextDouble(), new Color(0, 0, 0, 255)));
+                DeathBrick bottomWall = new DeathBrick(lineReader.nextInt(), lineReader.nextInt(), lineReader.nextDouble(), lineReader.nextDouble(), new Color(0, 0, 0, 255), this);
+                gameObjects.add(bottomWall);
+                playfieldBottom = Math.min(playfieldBottom, bottomWall.getyPosition() - bottomWall.getHeight()/2.0);
             }
             else {
-                bricks.put(new Brick(lineReader.nextInt(), lineReader.nextInt(), lineReader.nextDouble(), lineReader.nextDouble(), new Color(25, 72, 1, 255)), lineReader.nextInt());
+                Brick newBrick = parseBrick(brickType, lineReader);
+                int durability = lineReader.nextInt();
+                newBrick.setColor(new Color(20*durability, 60*durability, 0, 255));
+                bricks.put(newBrick, durability);
+                brickNumbers.put(newBrick, boardBricks.size());
+                boardBricks.add(newBrick);
             }
         }
+        List<Brick> staticBricks = new ArrayList<>();
+        for(Brick thisBrick : boardBricks){
+            if(thisBrick instanceof MovingBrick){
+                ((MovingBrick)thisBrick).listIndex = movingBricks.size();
+                movingBricks.add((MovingBrick)thisBrick);
+            }
+            else {
+                staticBricks.add(thisBrick);
+            }
+        }
+        brickTree = new BrickTree(staticBricks);
+        brickGrid = new BrickGrid(MOVINGCELLSIZE, movingBricks.size());
+        for(MovingBrick thisBrick : movingBricks){
+            brickGrid.add(thisBrick);
+        }
+        brickHits = new int[boardBricks.size()];
 
-        int numPowers = Integer.parseInt(fileIn.nextLine());
+        int numPowers = Integer.parseInt(fileIn.next());
         for(int i=0; i<numPowers; i++){
-            lineReader = new Scanner(fileIn.nextLine());
+            lineReader = new BoardLine(fileIn.next());
             String type = lineReader.next();
-            powerups.add(new Powerup(type, lineReader.nextInt(), lineReader.nextInt(), 0.25));
+            powerups.add(new Powerup(type, lineReader.nextInt(), lineReader.nextInt(), 0.25, rand));
         }
 
-        int numBalls = Integer.parseInt(fileIn.nextLine());
+        int numBalls = Integer.parseInt(fileIn.next());
         for(int i=0; i<numBalls; i++){
-            lineReader = new Scanner(fileIn.nextLine());
+            lineReader = new BoardLine(fileIn.next());
             lineReader.next(); //skip the name
             gameObjects.add(new Ball(lineReader.nextInt(), lineReader.nextDouble(), lineReader.nextDouble(), lineReader.nextDouble(),lineReader.nextDouble()));
         }
+
+        if(level != null){
+            shiftView(viewTop); //everything above was positioned relative to the view, which starts at the bottom of the level
+            loadNearbyChunks();
+        }
     }
 
     /**
-     * Loops through gameObjects and updates everything based on its velocity. It must check each projectile for a collision with each brick.
+     * Creates a regular brick from its line in a board file.
+     * @param brickType the word at the start of the line, which decides what shape the brick is and how it moves
+     * @param lineReader reads the rest of the line. It is left just before the brick's durability.
+     * @return the new brick
+     */
+    public static Brick parseBrick(String brickType, BoardLine lineReader){
+        if(brickType.equals("Circle")){
+            return new CircleBrick(lineReader.nextDouble(), lineReader.nextDouble(), lineReader.nextDouble(), new Color(25, 72, 1, 255));
+        }
+        else if(brickType.equals("Rotated")){
+            return new RotatedBrick(lineReader.nextInt(), lineReader.nextInt(), lineReader.nextDouble(), lineReader.nextDouble(), lineReader.nextDouble(), new Color(25, 72, 1, 255));
+        }
+        else if(brickType.equals("Polygon")){
+            double xPos = lineReader.nextDouble();
+            double yPos = lineReader.nextDouble();
+            double[] xPoints = new double[lineReader.nextInt()];
+            double[] yPoints = new double[xPoints.length];
+            for(int j = 0; j < xPoints.length; j++){
+                xPoints[j] = lineReader.nextDouble();
+                yPoints[j] = lineReader.nextDouble();
+            }
+            return new PolygonBrick(xPos, yPos, xPoints, yPoints, new Color(25, 72, 1, 255));
+        }
+        else if(brickType.equals("Patrol")){
+            return MovingBrick.patrol(lineReader.nextInt(), lineReader.nextInt(), lineReader.nextDouble(), lineReader.nextDouble(), lineReader.nextDouble(), lineReader.nextDouble(), lineReader.nextDouble(), new Color(25, 72, 1, 255));
+        }
+        else if(brickType.equals("Oscillate")){
+            return MovingBrick.oscillate(lineReader.nextInt(), lineReader.nextInt(), lineReader.nextDouble(), lineReader.nextDouble(), lineReader.nextDouble(), lineReader.nextDouble(), lineReader.nextDouble(), new Color(25, 72, 1, 255));
+        }
+        else {
+            return new Brick(lineReader.nextInt(), lineReader.nextInt(), lineReader.nextDouble(), lineReader.nextDouble(), new Color(25, 72, 1, 255));
+        }
+    }
+
+    /**
+     * Indexes the chunks of a scrolling level so that they can be streamed in as the game is played.
+     * @param filename the name of the board file
+     * @return the level's chunks, or null if the board doesn't scroll
+     */
+    public static LevelStream openLevel(String filename) throws FileNotFoundException {
+        Scanner fileIn = new Scanner(new File(filename));
+        String firstLine = fileIn.hasNextLine() ? fileIn.nextLine() : "";
+        fileIn.close();
+        if(!firstLine.startsWith("Scrolling")){
+            return null;
+        }
+        BoardLine lineReader = new BoardLine(firstLine);
+        lineReader.next(); //skip the name
+        return new LevelStream(filename, lineReader.nextDouble(), lineReader.nextDouble());
+    }
+
+    /**
+     * Reads every line of a board file so that it can be handed to a Game. For a scrolling level, this stops before the line Level, since the rest of the file is streamed.
+     * @param filename the name of the board file
+     * @return the lines of the file
+     */
+    public static List<String> readBoard(String filename) throws FileNotFoundException {
+        List<String> lines = new ArrayList<>();
+        Scanner fileIn = new Scanner(new File(filename));
+        while(fileIn.hasNextLine()){
+            String line = fileIn.nextLine();
+            if(line.trim().equals("Level")){
+                break;
+            }
+            lines.add(line);
+        }
+        fileIn.close();
+        return lines;
+    }
+
+    /**
+     * Loops through gameObjects and updates everything based on its velocity. It must check each projectile for a collision with each brick it is near.
      */
     public void update() {
+        long startNanos = System.nanoTime();
+        TickEvent tickEvent = new TickEvent();
+        tickEvent.begin();
+        int collisionsTested = 0;
+
         //Update all objects' positions
+        if(level != null){
+            double newTop = Math.max(0, viewTop - scrollSpeed);
+            shiftView(newTop - viewTop);
+            viewTop = newTop;
+            loadNearbyChunks();
+        }
+        if(particles != null){
+            particles.setViewTop(viewTop);
+            particles.update();
+        }
+        tickCount++;
+        for(int i = 0; i < movingBricks.size(); i++){
+            MovingBrick thisBrick = movingBricks.get(i);
+            thisBrick.advance(tickCount);
+            brickGrid.move(thisBrick);
+        }
         for(Drawable thisObject : gameObjects){
             thisObject.setxPosition(thisObject.getxPosition()+thisObject.getxVelocity());
             thisObject.setyPosition(thisObject.getyPosition()+thisObject.getyVelocity());
 
-            if(thisObject instanceof Brick){//temporarily add paddle and walls to "bricks" so as to check them for collisions
-                bricks.put((Brick)thisObject, 0);//setting their durability to zero means that they will be removed from the brick array before this method is done.
+            if(thisObject instanceof Ball && particles != null){
+                particles.emitTrail((Ball)thisObject, TRAILSIZE);
             }
         }
 
-        //loop through all the bricks looking for collisions.
+        //walls and the paddle are checked against every projectile, but only the bricks near a projectile are checked against it.
         //take note of which bricks and powerups need to be removed
         List<Brick> bricksToRemove = new LinkedList<>();
         List<Powerup> powsToRemove = new LinkedList<>();
-        for(Brick thisBrick : bricks.keySet()){
-            int durability = bricks.get(thisBrick);
+        for(Drawable thisObject : gameObjects){
+            if(!(thisObject instanceof Projectile)){
+                continue;
+            }
+            Projectile thisProjectile = (Projectile)thisObject;
 
-            for(Drawable thisObject : gameObjects){
-                if(thisObject instanceof Projectile){
-                    int collisionCode = thisBrick.detectCollision((Projectile)thisObject);
-                    if(collisionCode > 0){ //if they actually collide
-                        thisBrick.collide((Projectile)thisObject, collisionCode);
-
-                        if(thisObject instanceof Ball) {
-                            durability -= 1;
-                            bricks.put(thisBrick, durability);//decrease the durability
+            nearbyBricks.clear();
+            for(Drawable other : gameObjects){
+                if(other instanceof Brick){
+                    nearbyBricks.add((Brick)other);
+                }
+            }
+            brickTree.query(thisProjectile, nearbyBricks);
+            brickGrid.query(thisProjectile, nearbyBricks);
+            if(level != null){
+                for(LevelChunk thisChunk : residentChunks.values()){
+                    thisChunk.getBrickTree().query(thisProjectile, nearbyBricks);
+                }
+            }
+
+            for(Brick thisBrick : nearbyBricks){
+                collisionsTested++;
+                int collisionCode = thisBrick.detectCollision(thisProjectile);
+                if(collisionCode > 0){ //if they actually collide
+                    thisBrick.collide(thisProjectile, collisionCode);
+
+                    Integer durability = bricks.get(thisBrick); //null for walls and the paddle
+                    if(thisProjectile instanceof Ball && durability != null && durability > 0) {
+                        durability -= 1;
+                        bricks.put(thisBrick, durability);//decrease the durability
+                        score += HITPOINTS;
+                        Integer brickNumber = brickNumbers.get(thisBrick); //null for bricks streamed in from a scrolling level
+                        if(brickNumber != null){
+                            brickHits[brickNumber]++;
                         }
 
-                        if(thisObject instanceof Powerup && thisBrick instanceof Paddle){
-                            applyPowerup(((Powerup)thisObject).getType()); //if a powerup collides with the paddle, apply the powerup's effect.
-                            powsToRemove.add( (Powerup)thisObject);
+                        //Note the bricks whose durability is zero in order to remove them once this loop is done
+                        if(durability <= 0){
+                            bricksToRemove.add(thisBrick);
+                            score += BREAKPOINTS;
+                            bricksBroken++;
+                        } //if it has durability left, change its color based on its durability
+                        else {
+                            thisBrick.setColor(new Color(20*durability, 60*durability, 0, 255));
                         }
                     }
-                }
-            }
 
-            //Note the bricks whose durability is zero in order to remove them once this loop is done
-            if(durability <= 0){
-                bricksToRemove.add(thisBrick);
-            } //if it's a regular brick with durability left, change its color based on its durability
-            else if(thisBrick.getClass() == (new Brick(0,0,0,0,new Color(0,0,0))).getClass()){
-                    thisBrick.setColor(new Color(20*durability, 60*durability, 0, 255));
+                    if(thisProjectile instanceof Powerup && thisBrick instanceof Paddle){
+                        applyPowerup(((Powerup)thisProjectile).getType()); //if a powerup collides with the paddle, apply the powerup's effect.
+                        powsToRemove.add( (Powerup)thisProjectile);
+                    }
+                }
             }
         }
         //Java doesn't like it when you modify a collection while looping through it
         //here's the workaround for removing bricks
         for(Brick thisBrick : bricksToRemove){
-            bricks.remove(thisBrick);
+            removeBrick(thisBrick);
+            if(particles != null){
+                particles.emitBurst(thisBrick, BURSTSIZE);
+            }
+
+            BrickDestroyedEvent destroyedEvent = new BrickDestroyedEvent();
+            if(destroyedEvent.shouldCommit()){
+                destroyedEvent.xPosition = thisBrick.getxPosition();
+                destroyedEvent.yPosition = thisBrick.getyPosition();
+                destroyedEvent.commit();
+            }
         }
         for(Powerup thisPow : powsToRemove){
             gameObjects.remove(thisPow);
         }
 
-        Random rand = new Random();
-
         int randNum = rand.nextInt(POWERUPFREQ);
         if (randNum == 1 && !powerups.isEmpty()){
-            gameObjects.add(powerups.remove());
+            Powerup newPow = powerups.remove();
+            newPow.setyPosition(newPow.getyPosition() + viewTop); //powerups start at the top of the view
+            gameObjects.add(newPow);
+        }
+
+        tickEvent.end();
+        if(tickEvent.shouldCommit()){
+            int ballCount = 0;
+            for(Drawable thisObject : gameObjects){
+                if(thisObject instanceof Ball){
+                    ballCount++;
+                }
+            }
+            tickEvent.ballCount = ballCount;
+            tickEvent.brickCount = bricks.size();
+            tickEvent.collisionsTested = collisionsTested;
+            tickEvent.commit();
+        }
+
+        long tookNanos = System.nanoTime() - startNanos;
+        updateNanos += tookNanos;
+        maxUpdateNanos = Math.max(maxUpdateNanos, tookNanos);
+    }
+
+    /**
+     * Moves the walls, paddle, balls and powerups by the same amount the view moves, so that they stay in the same place on the screen.
+     * @param dy how far to move them. Negative is up.
+     */
+    private void shiftView(double dy){
+        for(Drawable thisObject : gameObjects){
+            if(thisObject instanceof Paddle){
+                ((Paddle)thisObject).shiftY(dy);
+            }
+            else {
+                thisObject.setyPosition(thisObject.getyPosition() + dy);
+            }
         }
     }
 
+    /**
+     * Loads the chunks of a scrolling level that are about to come into view, and throws away the ones that have scrolled far enough out of it.
+     * Only resident chunks are checked for collisions or drawn, so the amount of work per tick doesn't depend on how long the level is.
+     */
+    private void loadNearbyChunks(){
+        int firstChunk = level.chunkOf(viewTop - CHUNKMARGIN);
+        int lastChunk = level.chunkOf(viewTop + VIEWHEIGHT + CHUNKMARGIN);
+
+        Iterator<Map.Entry<Integer, LevelChunk>> residents = residentChunks.entrySet().iterator();
+        while(residents.hasNext()){
+            Map.Entry<Integer, LevelChunk> entry = residents.next();
+            if(entry.getKey() < firstChunk || entry.getKey() > lastChunk){
+                for(Brick thisBrick : entry.getValue().getBricks()){
+                    if(bricks.remove(thisBrick) != null && thisBrick instanceof MovingBrick){
+                        removeMovingBrick((MovingBrick)thisBrick);
+                    }
+                }
+                residents.remove();
+            }
+        }
+
+        for(int chunk = firstChunk; chunk <= lastChunk; chunk++){
+            if(residentChunks.containsKey(chunk)){
+                continue;
+            }
+            LevelChunk newChunk = level.load(chunk);
+            for(int i = 0; i < newChunk.getBricks().size(); i++){
+                Brick thisBrick = newChunk.getBricks().get(i);
+                int durability = newChunk.getDurabilities().get(i);
+                thisBrick.setColor(new Color(20*durability, 60*durability, 0, 255));
+                bricks.put(thisBrick, durability);
+                if(thisBrick instanceof MovingBrick){
+                    ((MovingBrick)thisBrick).advance(tickCount);
+                    ((MovingBrick)thisBrick).listIndex = movingBricks.size();
+                    movingBricks.add((MovingBrick)thisBrick);
+                    brickGrid.add((MovingBrick)thisBrick);
+                }
+            }
+            residentChunks.put(chunk, newChunk);
+        }
+
+        //bricks that have scrolled below the paddle can't be reached any more, so they don't have to be broken to win
+        double bottom = viewTop + playfieldBottom;
+        for(int chunk = level.chunkOf(bottom); chunk <= lastChunk; chunk++){
+            LevelChunk thisChunk = residentChunks.get(chunk);
+            if(thisChunk == null){
+                continue;
+            }
+            for(Brick thisBrick : thisChunk.getBricks()){
+                if(thisBrick.getyPosition() >= bottom && bricks.containsKey(thisBrick)){
+                    removeBrick(thisBrick);
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes a brick out of the bricks map and whichever collision index it is in, so it is no longer hit or drawn.
+     */
+    private void removeBrick(Brick thisBrick){
+        bricks.remove(thisBrick);
+        if(thisBrick instanceof MovingBrick){
+            removeMovingBrick((MovingBrick)thisBrick);
+        }
+        else {
+            brickTree.remove(thisBrick);
+            if(level != null){
+                for(LevelChunk thisChunk : residentChunks.values()){
+                    thisChunk.getBrickTree().remove(thisBrick);
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes a moving brick out of movingBricks and the grid.
+     */
+    private void removeMovingBrick(MovingBrick thisBrick){
+        //order doesn't matter, so fill the hole with the last moving brick instead of shifting everything down
+        MovingBrick last = movingBricks.remove(movingBricks.size() - 1);
+        if(last != thisBrick){
+            movingBricks.set(thisBrick.listIndex, last);
+            last.listIndex = thisBrick.listIndex;
+        }
+        brickGrid.remove(thisBrick);
+    }
+
     /**
      * This method is called when a powerup collides with the paddle. It is responsible for changing the game state to reflect the effect of the powerup.
      * @param effectName the name of the powerup to be applied. Currently supported powerups include "Extra Life"
@@ -172,18 +536,33 @@ public class Game implements KeyListener {
         if(effectName.equals("SlowPaddle")){
             paddleSpeed /= 2;
         }
+
+        PowerupAppliedEvent appliedEvent = new PowerupAppliedEvent();
+        if(appliedEvent.shouldCommit()){
+            appliedEvent.type = effectName;
+            appliedEvent.commit();
+        }
     }
 
     /**
      * Draws all of the components of the game on the GUI. This may require additional helper methods or classes.
      */
     public void drawFrame(){
+        FrameEvent frameEvent = new FrameEvent();
+        frameEvent.begin();
+
         //loop through gameObjects and bricks and draw everything
         //board.addKeyListener(this);//moved this line to the constructor
 
         //paddleLabel = new JLabel();
         JPanel contentPane = new JPanel(new BorderLayout());
 
+        int viewOffset = (int)viewTop; //everything is positioned in level coordinates, so move it up to where the view is
+
+        //components added first are drawn on top, so the particles go in before everything else
+        particles.render();
+        contentPane.add(particles);
+
         //show extra balls in top left
         for(int x = 1; x < lives; x++){
             JLabel extraBall = new JLabel();
@@ -201,7 +580,7 @@ public class Game implements KeyListener {
 
                 Brick thisBrick = (Brick)gameObjects.get(i);
                 int topLeftX = (int)(thisBrick.getxPosition() - thisBrick.getWidth()/2);
-                int topLeftY = (int)(thisBrick.getyPosition() - thisBrick.getHeight()/2);
+                int topLeftY = (int)(thisBrick.getyPosition() - thisBrick.getHeight()/2) - viewOffset;
                 brickLabel.setBounds(topLeftX, topLeftY, ((Brick) gameObjects.get(i)).getWidth(), ((Brick) gameObjects.get(i)).getHeight());
                 contentPane.add(brickLabel);
             }
@@ -215,29 +594,22 @@ public class Game implements KeyListener {
                 JLabel ballLabel = new JLabel();
                 ballLabel.setBackground(gameObjects.get(i).getColor());
                 ballLabel.setOpaque(true);
-                ballLabel.setBounds((int) gameObjects.get(i).getxPosition(), (int) gameObjects.get(i).getyPosition(), (((Ball) gameObjects.get(i)).getRadius()), ((Ball) gameObjects.get(i)).getRadius());
+                ballLabel.setBounds((int) gameObjects.get(i).getxPosition(), (int) gameObjects.get(i).getyPosition() - viewOffset, (((Ball) gameObjects.get(i)).getRadius()), ((Ball) gameObjects.get(i)).getRadius());
                 contentPane.add(ballLabel);
             }
             if (gameObjects.get(i) instanceof Powerup){
                 JLabel powerLabel = new JLabel();
                 powerLabel.setBackground(gameObjects.get(i).getColor());
                 powerLabel.setOpaque(true);
-                powerLabel.setBounds((int)gameObjects.get(i).getxPosition(), (int)gameObjects.get(i).getyPosition(), 4, 4);
+                powerLabel.setBounds((int)gameObjects.get(i).getxPosition(), (int)gameObjects.get(i).getyPosition() - viewOffset, 4, 4);
                 contentPane.add(powerLabel);
             }
 
         }
 
-        for (Brick key : bricks.keySet()){
-            JLabel brickLabel = new JLabel();
-            brickLabel.setBackground(key.getColor());
-            brickLabel.setOpaque(true);
-
-            int topLeftX = (int)(key.getxPosition() - key.getWidth()/2);
-            int topLeftY = (int)(key.getyPosition() - key.getHeight()/2);
-            brickLabel.setBounds(topLeftX, topLeftY, key.getWidth(), key.getHeight());
-            contentPane.add(brickLabel);
-        }
+        //all of the bricks are drawn into one component, so drawing doesn't slow down as the number of bricks grows
+        brickLayer.render(bricks.keySet(), viewOffset);
+        contentPane.add(brickLayer);
 
         JLabel background = new JLabel();
         background.setBackground(new Color(80, 80, 80));
@@ -247,17 +619,78 @@ public class Game implements KeyListener {
 
         board.setContentPane(contentPane);
         board.show();
+
+        frameEvent.commit();
     }
 
     /**
-     * Repeatedly draws the board, updates the game state while listening for keyboard input and adjusting the paddle's velocity accordingly. This will require using threads, and it may require additional helper methods.
+     * Sets up everything needed to draw this game that doesn't involve a window yet. This can be done ahead of time on another thread, so that attach() is quick.
+     */
+    public void prepareToDraw(){
+        if(particles == null){
+            particles = new ParticleSystem(MAXPARTICLES, 500, 500);
+            brickLayer = new BrickLayer(500, 500);
+        }
+    }
+
+    /**
+     * Starts drawing this game in a window and listening to that window's keyboard input.
+     * @param window the window to draw in
+     */
+    public void attach(MyFrame window){
+        prepareToDraw();
+        board = window;
+        board.addKeyListener(this);
+    }
+
+    /**
+     * Stops listening to the window's keyboard input, so that the window can be handed to another game.
+     */
+    public void detach(){
+        if(board != null){
+            board.removeKeyListener(this);
+        }
+    }
+
+    /**
+     * Plays the game until it is over, then shows whether the player won or lost.
      */
     public void main(){
+        ResultsStore sessionResults = openResults();
+        saveResultsTo(sessionResults);
+        boolean won = play();
+        closeResults(sessionResults);
+        showResult(board, won);
+    }
+
+    /**
+     * Replaces whatever is in a window with a message saying whether the player won or lost.
+     * @param window the window to show the message in
+     * @param won true if the player won
+     */
+    public static void showResult(MyFrame window, boolean won){
+        JPanel contentPane = new JPanel(new BorderLayout());
+        if(won){
+            contentPane.add(new JTextField("You win!"));
+        }
+        else{
+            contentPane.add(new JTextField("You lose :("));
+        }
+        window.setContentPane(contentPane);
+        window.revalidate();
+        window.setVisible(true);
+    }
+
+    /**
+     * Repeatedly draws the board, updates the game state while listening for keyboard input and adjusting the paddle's velocity accordingly. This will require using threads, and it may require additional helper methods.
+     * @return true if the player won
+     */
+    public boolean play(){
         //board = new MyFrame(); //this line already exists in the constructor for Game
         long lastFrame = System.currentTimeMillis();
         long lastTick = System.currentTimeMillis();
 
-        while (!bricks.isEmpty() && lives > 0){
+        while (!isOver()){
             //System.out.println(System.currentTimeMillis()); //It takes 1-4 milliseconds to run this loop once
             if(System.currentTimeMillis() - lastFrame > FRAMETIME) {
                 lastFrame = System.currentTimeMillis();
@@ -271,15 +704,79 @@ public class Game implements KeyListener {
             }
         }
 
-        JPanel contentPane = new JPanel(new BorderLayout());
-        if(lives > 0){
-            contentPane.add(new JTextField("You win!"));
+        if(results != null && boardName != null){
+            saveResult();
         }
-        else{
-            contentPane.add(new JTextField("You lose :("));
+        return lives > 0;
+    }
+
+    /**
+     * Adds the result of this game to the results file. This usually only adds it to the file's current batch, so it doesn't hold up the game.
+     * Failing to save it isn't a reason to stop the game, so problems are only reported.
+     */
+    private void saveResult(){
+        try{
+            results.append(makeRecord(), boardName);
         }
-        board.setContentPane(contentPane);
-        board.show();
+        catch (IOException e){
+            System.out.println("The result of this game couldn't be saved: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sets where this game's result is saved when it ends. One results file is meant to be shared by every game in a session,
+     * so that results are written in batches instead of one at a time.
+     * @param results the results file, or null to not save the result
+     */
+    public void saveResultsTo(ResultsStore results){
+        this.results = results;
+    }
+
+    /**
+     * Opens the results file for a session of games played in a window. If the program exits before the session closes it,
+     * it is closed then, so the results that haven't been written yet aren't lost.
+     * @return the results file, or null if it couldn't be opened. Games can still be played without it.
+     */
+    public static ResultsStore openResults(){
+        try{
+            ResultsStore results = new ResultsStore(RESULTSFILE);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> closeResults(results)));
+            return results;
+        }
+        catch (IOException e){
+            System.out.println("Results won't be saved: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes out a session's results and closes the results file.
+     * @param results the results file, or null if there isn't one
+     */
+    public static void closeResults(ResultsStore results){
+        if(results == null){
+            return;
+        }
+        try{
+            results.close();
+        }
+        catch (IOException e){
+            System.out.println("The results couldn't be saved: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Summarizes this game so that it can be saved in a ResultsStore.
+     * @param boardName the name the board's results are kept under
+     * @return the game's result
+     */
+    public RunRecord makeRecord(String boardName){
+        return new RunRecord(RunRecord.boardId(boardName), seed, System.currentTimeMillis(), tickCount, updateNanos, maxUpdateNanos,
+                score, lives, bricksBroken, lives > 0 && isOver());
+    }
+
+    private RunRecord makeRecord(){
+        return makeRecord(boardName);
     }
 
     /**
@@ -345,7 +842,81 @@ public class Game implements KeyListener {
     /**
      * This method subtracts a life. It is called whenever the ball hits the lower boundary.
      */
-    public static void loseLife(){
+    public void loseLife(){
         lives--;
     }
+
+    /**
+     * Starts the paddle moving the same way the a and d keys do. This lets a game be played without a keyboard.
+     * @param direction -1 to move left, 1 to move right, or 0 to stop
+     */
+    public void movePaddle(int direction){
+        Paddle paddle = getPaddle();
+        if(paddle != null){
+            paddle.setxVelocity(direction * paddleSpeed);
+        }
+    }
+
+    /**
+     * This method retrieves the paddle.
+     * @return the paddle, or null if the board doesn't have one
+     */
+    public Paddle getPaddle(){
+        for(Drawable thisObj : gameObjects){
+            if(thisObj instanceof Paddle){
+                return (Paddle)thisObj;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * This method retrieves everything that is being drawn and updated apart from the regular bricks.
+     * @return the walls, paddle, balls and falling powerups. This list should not be modified.
+     */
+    public List<Drawable> getGameObjects(){
+        return gameObjects;
+    }
+
+    /**
+     * This method retrieves the player's score. Hitting a brick is worth HITPOINTS, and breaking it is worth BREAKPOINTS more.
+     * @return the score
+     */
+    public int getScore(){
+        return score;
+    }
+
+    /**
+     * This method retrieves the number of lives left.
+     * @return the number of lives left
+     */
+    public int getLives(){
+        return lives;
+    }
+
+    /**
+     * Determines whether the game has ended, either because every brick has been broken or because the player is out of lives.
+     * A scrolling level isn't won until the view has reached the top and every brick above the paddle has been broken.
+     * Bricks that scroll below the paddle are dropped, since the ball can't reach them.
+     * @return true if the game is over
+     */
+    public boolean isOver(){
+        return (bricks.isEmpty() && viewTop <= 0) || lives <= 0;
+    }
+
+    /**
+     * This method retrieves the regular bricks in the order they were read from the board file, including the ones that have been broken.
+     * @return the board's bricks. This list should not be modified.
+     */
+    public List<Brick> getBoardBricks(){
+        return boardBricks;
+    }
+
+    /**
+     * This method retrieves how many times the ball has hit each brick.
+     * @return the number of hits on each brick, in the same order as getBoardBricks()
+     */
+    public int[] getBrickHits(){
+        return brickHits;
+    }
 }
\ No newline at end of file
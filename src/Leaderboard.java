@@ -0,0 +1,61 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A command-line tool for looking at saved results. It prints the best runs on a board (or on every board) and the percentiles of
+ * their scores and lengths. Everything except the best runs themselves comes from the results file's index, so this stays fast no
+ * matter how many runs have been saved.
+ */
+public class Leaderboard {
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    /**
+     * Usage: java Leaderboard resultsFile [board|all] [n]
+     */
+    public static void main(String[] args) {
+        if(args.length == 0){
+            System.out.println("Usage: java Leaderboard resultsFile [board|all] [n]");
+            return;
+        }
+        if(!new File(args[0]).exists()){
+            System.out.println("That file was not found.");
+            return;
+        }
+        String boardName = args.length > 1 && !args[1].equals("all") ? args[1] : null;
+        int n = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        try(ResultsStore store = new ResultsStore(args[0], true)){ //read-only, so this works while a game is saving results
+            ResultsIndex.BoardStats stats = store.stats(boardName);
+            if(stats == null){
+                System.out.println("No runs have been saved for " + boardName + ".");
+                return;
+            }
+
+            System.out.println("Board: " + (boardName == null ? "all boards" : boardName));
+            System.out.println("Runs: " + stats.getScores().getTotal());
+            printPercentiles("Score", stats.getScores());
+            printPercentiles("Ticks", stats.getTicks());
+
+            List<RunRecord> best = store.top(boardName, n);
+            System.out.println("Top " + best.size() + " runs:");
+            int rank = 1;
+            for(RunRecord thisRecord : best){
+                System.out.printf("  %3d. %8d  %-20s %8d ticks  %3d bricks  %s  seed %d%n", rank++, thisRecord.getScore(),
+                        store.boardName(thisRecord.getBoardId()), thisRecord.getTicks(), thisRecord.getBricksBroken(),
+                        thisRecord.isWon() ? "won " : "lost", thisRecord.getSeed());
+            }
+        }
+        catch (IOException e){
+            System.out.println("The results couldn't be read: " + e.getMessage());
+        }
+    }
+
+    private static void printPercentiles(String label, ValueHistogram histogram){
+        System.out.print(label + ":");
+        for(double percentile : PERCENTILES){
+            System.out.printf("  p%.0f %d", percentile, histogram.percentile(percentile));
+        }
+        System.out.println();
+    }
+}
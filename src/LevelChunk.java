@@ -0,0 +1,53 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One horizontal band of a scrolling level that has been read into memory. It keeps its own BrickTree for the bricks in it that
+ * don't move, so a chunk can be loaded or thrown away without rebuilding anything for the rest of the level.
+ */
+public class LevelChunk {
+    private List<Brick> bricks;
+    private List<Integer> durabilities;
+    private BrickTree brickTree;
+
+    /**
+     * @param bricks the bricks whose centers are in this chunk
+     * @param durabilities the starting durability of each brick, in the same order
+     */
+    public LevelChunk(List<Brick> bricks, List<Integer> durabilities){
+        this.bricks = bricks;
+        this.durabilities = durabilities;
+
+        List<Brick> staticBricks = new ArrayList<>();
+        for(Brick thisBrick : bricks){
+            if(!(thisBrick instanceof MovingBrick)){
+                staticBricks.add(thisBrick);
+            }
+        }
+        brickTree = new BrickTree(staticBricks);
+    }
+
+    /**
+     * This method retrieves the bricks in this chunk, including any that have since been broken.
+     * @return the bricks in this chunk
+     */
+    public List<Brick> getBricks(){
+        return bricks;
+    }
+
+    /**
+     * This method retrieves the durability each brick started with.
+     * @return the starting durabilities, in the same order as getBricks()
+     */
+    public List<Integer> getDurabilities(){
+        return durabilities;
+    }
+
+    /**
+     * This method retrieves the collision index for this chunk's bricks that don't move.
+     * @return the chunk's BrickTree
+     */
+    public BrickTree getBrickTree(){
+        return brickTree;
+    }
+}
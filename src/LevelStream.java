@@ -0,0 +1,124 @@
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the bricks of a scrolling level from its file one chunk at a time. When it is created, it skims the file once to note
+ * where each chunk's lines start, and after that it only keeps those positions in memory. A chunk's bricks are read again
+ * from the file every time the chunk is loaded.
+ * Everything after the line "Level" in the file is one brick per line, in any format a regular brick can have in a board file,
+ * using level coordinates and listed from the top of the level to the bottom.
+ */
+public class LevelStream {
+    private final String FILENAME;
+    private final double CHUNKHEIGHT;
+    private long[] chunkStarts; //chunk i's lines run from byte chunkStarts[i] up to byte chunkStarts[i+1]
+
+    /**
+     * Finds where each chunk of a scrolling level starts in its file.
+     * @param filename the name of the level file
+     * @param levelHeight the height of the whole level
+     * @param chunkHeight the height of each chunk
+     */
+    public LevelStream(String filename, double levelHeight, double chunkHeight) throws FileNotFoundException {
+        FILENAME = filename;
+        CHUNKHEIGHT = chunkHeight;
+        int chunkCount = Math.max(1, (int)Math.ceil(levelHeight / chunkHeight));
+        chunkStarts = new long[chunkCount + 1];
+
+        try(InputStream in = new BufferedInputStream(new FileInputStream(filename))){
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            long position = 0;
+            long lineStart = 0;
+            boolean inLevel = false;
+            int nextChunk = 0; //the first chunk whose start hasn't been found yet
+
+            int b = 0;
+            while(b != -1){
+                b = in.read();
+                if(b != -1 && b != '\n'){
+                    line.write(b);
+                    position++;
+                    continue;
+                }
+                String text = line.toString().trim();
+                line.reset();
+
+                if(!inLevel){
+                    inLevel = text.equals("Level");
+                }
+                else if(!text.isEmpty()){
+                    BoardLine lineReader = new BoardLine(text);
+                    int chunk = chunkOf(Game.parseBrick(lineReader.next(), lineReader).getyPosition());
+                    if(chunk < nextChunk - 1){
+                        throw new IllegalArgumentException("The bricks in " + filename + " must be listed from the top of the level to the bottom");
+                    }
+                    while(nextChunk <= chunk){
+                        chunkStarts[nextChunk++] = lineStart;
+                    }
+                }
+
+                if(b != -1){
+                    position++;
+                }
+                lineStart = position;
+            }
+            while(nextChunk <= chunkCount){
+                chunkStarts[nextChunk++] = position;
+            }
+        }
+        catch (FileNotFoundException e){
+            throw e;
+        }
+        catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Works out which chunk a vertical position belongs to. Positions above or below the level belong to the first or last chunk.
+     * @param yPos a vertical position in level coordinates
+     * @return the number of the chunk
+     */
+    public int chunkOf(double yPos){
+        return Math.max(0, Math.min(getChunkCount() - 1, (int)Math.floor(yPos / CHUNKHEIGHT)));
+    }
+
+    /**
+     * This method retrieves the number of chunks in the level.
+     * @return the number of chunks
+     */
+    public int getChunkCount(){
+        return chunkStarts.length - 1;
+    }
+
+    /**
+     * Reads one chunk's bricks from the file.
+     * @param chunk the number of the chunk to read, starting from 0 at the top of the level
+     * @return the chunk's bricks
+     */
+    public LevelChunk load(int chunk){
+        List<Brick> bricks = new ArrayList<>();
+        List<Integer> durabilities = new ArrayList<>();
+
+        byte[] bytes = new byte[(int)(chunkStarts[chunk+1] - chunkStarts[chunk])];
+        try(RandomAccessFile file = new RandomAccessFile(FILENAME, "r")){
+            file.seek(chunkStarts[chunk]);
+            file.readFully(bytes);
+        }
+        catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+
+        for(String text : new String(bytes).split("\n")){
+            text = text.trim();
+            if(text.isEmpty()){
+                continue;
+            }
+            BoardLine lineReader = new BoardLine(text);
+            bricks.add(Game.parseBrick(lineReader.next(), lineReader));
+            durabilities.add(lineReader.nextInt());
+        }
+        return new LevelChunk(bricks, durabilities);
+    }
+}
@@ -0,0 +1,14 @@
+import jdk.jfr.*;
+
+/**
+ * A Flight Recorder event recorded whenever the ball hits a DeathBrick and the player loses a life.
+ */
+@Name("breakout.LifeLost")
+@Label("Life Lost")
+@Category("Breakout")
+@Enabled(false)
+@StackTrace(false)
+public class LifeLostEvent extends Event {
+    @Label("X Position")
+    double xPosition;
+}
@@ -8,6 +8,7 @@ import java.util.Scanner;
 public class Main {
     /**
      * Uses console input to have the user enter a filename, then initialize a new game from that file and call its main method.
+     * If the file is a campaign, play each of its boards in turn instead.
      */
     public static void main(String[] args) {
         try{
@@ -34,8 +35,13 @@ public class Main {
                 System.out.println(instructPrinter.nextLine());
             }
 
-            Game myGame = new Game(filename);
-            myGame.main();
+            if(Campaign.isCampaign(filename)){
+                new Campaign(filename).play();
+            }
+            else {
+                Game myGame = new Game(filename);
+                myGame.main();
+            }
         }
         catch (FileNotFoundException e){
             System.out.println("That file was not found.");
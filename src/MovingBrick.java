@@ -0,0 +1,86 @@
+import java.awt.*;
+
+/**
+ * A regular brick that moves along a fixed path. Its position is worked out from the number of ticks since the game started
+ * rather than by adding up its velocity, so it never drifts off of its path.
+ */
+public class MovingBrick extends Brick {
+    private final boolean OSCILLATE; //true to swing smoothly back and forth, false to patrol at a constant speed
+    private final double STARTX;
+    private final double STARTY;
+    private final double XRANGE; //for a patrol, how far the far end of the path is from the start. For an oscillation, the amplitude
+    private final double YRANGE;
+    private final double PERIOD; //the number of ticks it takes to go there and back
+
+    //the grid cells this brick was in the last time BrickGrid placed it. Only BrickGrid uses these
+    int minCellX;
+    int minCellY;
+    int maxCellX;
+    int maxCellY;
+    int queryStamp;
+
+    int listIndex; //where this brick is in Game's list of moving bricks, so it can be taken out without searching. Only Game uses this
+
+    private MovingBrick(int height, int width, double xPos, double yPos, Color color, boolean oscillate, double xRange, double yRange, double period){
+        super(height, width, xPos, yPos, color);
+        OSCILLATE = oscillate;
+        STARTX = xPos;
+        STARTY = yPos;
+        XRANGE = xRange;
+        YRANGE = yRange;
+        PERIOD = Math.max(1, period);
+    }
+
+    /**
+     * Creates a brick that moves back and forth in a straight line at a constant speed.
+     * @param height the height of the brick
+     * @param width the width of the brick
+     * @param xPos the horizontal position of the brick's center at the start of its path
+     * @param yPos the vertical position of the brick's center at the start of its path
+     * @param endX the horizontal position of the brick's center at the other end of its path
+     * @param endY the vertical position of the brick's center at the other end of its path
+     * @param speed how far the brick moves each tick
+     * @param color the starting color of this brick
+     */
+    public static MovingBrick patrol(int height, int width, double xPos, double yPos, double endX, double endY, double speed, Color color){
+        double length = Math.sqrt((endX-xPos)*(endX-xPos) + (endY-yPos)*(endY-yPos));
+        return new MovingBrick(height, width, xPos, yPos, color, false, endX - xPos, endY - yPos, 2*length/speed);
+    }
+
+    /**
+     * Creates a brick that swings back and forth around a point like a pendulum.
+     * @param height the height of the brick
+     * @param width the width of the brick
+     * @param xPos the horizontal position of the middle of the swing
+     * @param yPos the vertical position of the middle of the swing
+     * @param xAmplitude how far the brick swings to either side horizontally
+     * @param yAmplitude how far the brick swings to either side vertically
+     * @param period the number of ticks one full swing takes
+     * @param color the starting color of this brick
+     */
+    public static MovingBrick oscillate(int height, int width, double xPos, double yPos, double xAmplitude, double yAmplitude, double period, Color color){
+        return new MovingBrick(height, width, xPos, yPos, color, true, xAmplitude, yAmplitude, period);
+    }
+
+    /**
+     * Moves the brick to where it belongs on its path at the given time, and sets its velocity to how far it moved.
+     * @param tick the number of ticks since the game started
+     */
+    public void advance(long tick){
+        double phase = tick / PERIOD;
+        double within = phase - Math.floor(phase); //how far through the current trip there and back the brick is
+        double fraction;
+        if(OSCILLATE){
+            fraction = Math.sin(2 * Math.PI * within);
+        }
+        else{
+            fraction = within < 0.5 ? 2*within : 2 - 2*within; //out to the end of the path, then back
+        }
+        double newX = STARTX + fraction * XRANGE;
+        double newY = STARTY + fraction * YRANGE;
+        this.setxVelocity(newX - this.getxPosition());
+        this.setyVelocity(newY - this.getyPosition());
+        this.setxPosition(newX);
+        this.setyPosition(newY);
+    }
+}
@@ -47,6 +47,14 @@ public class Paddle extends Brick{
 
     }
 
+    /**
+     * Moves the paddle up or down. This is only for keeping the paddle in the same place on the screen while a scrolling level's view moves.
+     * @param dy how far to move the paddle. Negative is up.
+     */
+    public void shiftY(double dy){
+        super.setyPosition(this.getyPosition() + dy);
+    }
+
     /**
      * only update the x position of the paddle within the bounds
      */
@@ -0,0 +1,72 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.List;
+
+/**
+ * Everything read from a board file that a Game needs to start, kept so the file doesn't have to be read again.
+ * A ParsedBoard is never changed after it is made, so any number of games, on any threads, can be started from the same one.
+ */
+public class ParsedBoard {
+    private String name;
+    private List<String> lines;
+    private LevelStream level;
+
+    /**
+     * @param name the board's file name, without any folders
+     * @param lines the lines of the board file, as returned by Game.readBoard()
+     * @param level the index of a scrolling level's chunks, or null if the board doesn't scroll
+     */
+    public ParsedBoard(String name, List<String> lines, LevelStream level){
+        this.name = name;
+        this.lines = List.copyOf(lines);
+        this.level = level;
+    }
+
+    /**
+     * Reads a board file, and indexes it if it is a scrolling level.
+     * @param filename the name of the board file
+     * @return the parsed board
+     */
+    public static ParsedBoard read(String filename) throws FileNotFoundException {
+        return new ParsedBoard(new File(filename).getName(), Game.readBoard(filename), Game.openLevel(filename));
+    }
+
+    /**
+     * This method retrieves the board's name.
+     * @return the board's file name, without any folders
+     */
+    public String getName(){
+        return name;
+    }
+
+    /**
+     * This method retrieves the lines of the board file.
+     * @return the lines of the file, up to the Level line of a scrolling level
+     */
+    public List<String> getLines(){
+        return lines;
+    }
+
+    /**
+     * This method retrieves the index of a scrolling level.
+     * @return the level's chunks, or null if the board doesn't scroll
+     */
+    public LevelStream getLevel(){
+        return level;
+    }
+
+    /**
+     * Estimates how much memory this board takes up, so that BoardCache can limit how much it keeps.
+     * @return roughly how many bytes this board uses
+     */
+    public long getSize(){
+        long size = 0;
+        for(String line : lines){
+            size += 40 + 2L * line.length(); //the String object plus its characters
+        }
+        if(level != null){
+            size += 8L * (level.getChunkCount() + 1);
+        }
+        return size;
+    }
+}
@@ -0,0 +1,187 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * Stores every live particle (brick debris and ball trails) in preallocated parallel arrays instead of one object per particle,
+ * so spawning, updating and drawing particles never allocates. All of the particles are drawn together into one image.
+ */
+public class ParticleSystem extends JComponent {
+    private static final long serialVersionUID = 1L;
+
+    private final int CAPACITY;
+    private final int WIDTH;
+    private final int HEIGHT;
+    private final float GRAVITY = 0.02f;
+
+    //one slot per particle. Live particles are always packed into the first count slots
+    private final float[] xPositions;
+    private final float[] yPositions;
+    private final float[] xVelocities;
+    private final float[] yVelocities;
+    private final short[] lifeLeft;
+    private final short[] maxLife;
+    private final int[] colors;
+    private int count;
+    private double viewTop; //the particles are positioned in level coordinates, and this is the level's y-coordinate at the top of the image
+
+    //the particles are drawn into the back image while the GUI paints the front image
+    private final BufferedImage[] images = new BufferedImage[2];
+    private final int[][] pixels = new int[2][];
+    private volatile int front;
+
+    private int seed = 0x2545F491;
+
+    /**
+     * Creates an empty particle system.
+     * @param capacity the maximum number of particles that can be alive at once. New particles are dropped once it is full.
+     * @param width the width of the area the particles are drawn in
+     * @param height the height of the area the particles are drawn in
+     */
+    public ParticleSystem(int capacity, int width, int height){
+        CAPACITY = capacity;
+        WIDTH = width;
+        HEIGHT = height;
+
+        xPositions = new float[capacity];
+        yPositions = new float[capacity];
+        xVelocities = new float[capacity];
+        yVelocities = new float[capacity];
+        lifeLeft = new short[capacity];
+        maxLife = new short[capacity];
+        colors = new int[capacity];
+
+        for(int i = 0; i < 2; i++){
+            images[i] = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            pixels[i] = ((DataBufferInt) images[i].getRaster().getDataBuffer()).getData();
+        }
+
+        this.setOpaque(false);
+        this.setBounds(0, 0, width, height);
+    }
+
+    /**
+     * Spawns a burst of debris spread across the area of a destroyed brick.
+     * @param brick the brick that was destroyed
+     * @param amount the number of particles in the burst
+     */
+    public void emitBurst(Brick brick, int amount){
+        float left = (float)(brick.getxPosition() - brick.getWidth()/2.0);
+        float top = (float)(brick.getyPosition() - brick.getHeight()/2.0);
+        int rgb = brick.getColor().getRGB() & 0xFFFFFF;
+
+        for(int i = 0; i < amount; i++){
+            float angle = nextFloat() * 6.2831855f;
+            float speed = 0.3f + nextFloat() * 1.2f;
+            spawn(left + nextFloat()*brick.getWidth(), top + nextFloat()*brick.getHeight(),
+                    (float)Math.cos(angle) * speed, (float)Math.sin(angle) * speed - 0.5f,
+                    60 + (int)(nextFloat() * 60), rgb);
+        }
+    }
+
+    /**
+     * Spawns a few short-lived particles behind a ball.
+     * @param ball the ball leaving the trail
+     * @param amount the number of particles to spawn this tick
+     */
+    public void emitTrail(Ball ball, int amount){
+        int rgb = ball.getColor().getRGB() & 0xFFFFFF;
+        float halfRad = ball.getRadius() / 2.0f;
+
+        for(int i = 0; i < amount; i++){
+            spawn((float)ball.getxPosition() + halfRad + (nextFloat()-0.5f)*halfRad, (float)ball.getyPosition() + halfRad + (nextFloat()-0.5f)*halfRad,
+                    (nextFloat()-0.5f) * 0.1f, -GRAVITY * 10, //cancel out most of the gravity over the trail's short life
+                    15 + (int)(nextFloat() * 10), rgb);
+        }
+    }
+
+    private void spawn(float x, float y, float xVel, float yVel, int life, int rgb){
+        if(count == CAPACITY){
+            return;
+        }
+        xPositions[count] = x;
+        yPositions[count] = y;
+        xVelocities[count] = xVel;
+        yVelocities[count] = yVel;
+        lifeLeft[count] = (short)life;
+        maxLife[count] = (short)life;
+        colors[count] = rgb;
+        count++;
+    }
+
+    /**
+     * Moves every particle by one tick in a single pass. Dead particles are replaced by the last live particle so the live ones stay packed.
+     */
+    public void update(){
+        int i = 0;
+        while(i < count){
+            if(--lifeLeft[i] <= 0 || xPositions[i] < 0 || xPositions[i] >= WIDTH || yPositions[i] - viewTop >= HEIGHT){
+                count--;
+                xPositions[i] = xPositions[count];
+                yPositions[i] = yPositions[count];
+                xVelocities[i] = xVelocities[count];
+                yVelocities[i] = yVelocities[count];
+                lifeLeft[i] = lifeLeft[count];
+                maxLife[i] = maxLife[count];
+                colors[i] = colors[count];
+                continue; //the particle moved into slot i hasn't been updated yet
+            }
+            yVelocities[i] += GRAVITY;
+            xPositions[i] += xVelocities[i];
+            yPositions[i] += yVelocities[i];
+            i++;
+        }
+    }
+
+    /**
+     * Draws every live particle into the back image as a single pixel that fades out as it dies, then makes it the image the GUI paints.
+     * This is meant to be called once per frame by the same thread that calls update().
+     */
+    public void render(){
+        int back = 1 - front;
+        int[] target = pixels[back];
+        Arrays.fill(target, 0);
+
+        for(int i = 0; i < count; i++){
+            int x = (int)xPositions[i];
+            int y = (int)(yPositions[i] - viewTop);
+            if(x < 0 || y < 0 || x >= WIDTH || y >= HEIGHT){
+                continue;
+            }
+            int alpha = 255 * lifeLeft[i] / maxLife[i];
+            target[y*WIDTH + x] = (alpha << 24) | colors[i];
+        }
+        front = back;
+    }
+
+    /**
+     * Sets which part of a scrolling level the particles are drawn from.
+     * @param viewTop the level's y-coordinate at the top of the view
+     */
+    public void setViewTop(double viewTop){
+        this.viewTop = viewTop;
+    }
+
+    /**
+     * This method retrieves the number of live particles.
+     * @return the number of live particles
+     */
+    public int getCount(){
+        return count;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g){
+        g.drawImage(images[front], 0, 0, null);
+    }
+
+    //xorshift, so that spawning particles doesn't share or allocate a Random
+    private float nextFloat(){
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return (seed >>> 8) / (float)(1 << 24);
+    }
+}
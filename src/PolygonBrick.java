@@ -0,0 +1,126 @@
+import java.awt.*;
+import java.awt.geom.Path2D;
+
+/**
+ * A brick shaped like a convex polygon. The ball bounces off of whichever edge or corner it touches.
+ */
+public class PolygonBrick extends ShapedBrick {
+    private double[] xPoints; //the corners, relative to the brick's position
+    private double[] yPoints;
+    private double[] xNormals; //the outward unit normal of the edge from corner i to corner i+1
+    private double[] yNormals;
+
+    /**
+     * Initialize a PolygonBrick. The corners may go around either clockwise or counterclockwise, but the polygon must be convex.
+     * @param xPos the horizontal position of the brick
+     * @param yPos the vertical position of the brick
+     * @param xPoints the horizontal offset of each corner from (xPos, yPos)
+     * @param yPoints the vertical offset of each corner from (xPos, yPos)
+     * @param color the starting color of this brick
+     */
+    public PolygonBrick(double xPos, double yPos, double[] xPoints, double[] yPoints, Color color){
+        super(2*(int)Math.ceil(maxAbs(yPoints)), 2*(int)Math.ceil(maxAbs(xPoints)), xPos, yPos, color);
+        if(xPoints.length < 3 || xPoints.length != yPoints.length){
+            throw new IllegalArgumentException("A polygon brick needs at least 3 corners");
+        }
+        this.xPoints = xPoints.clone();
+        this.yPoints = yPoints.clone();
+
+        double xCenter = 0;
+        double yCenter = 0;
+        for(int i = 0; i < xPoints.length; i++){
+            xCenter += xPoints[i] / xPoints.length;
+            yCenter += yPoints[i] / yPoints.length;
+        }
+
+        xNormals = new double[xPoints.length];
+        yNormals = new double[xPoints.length];
+        for(int i = 0; i < xPoints.length; i++){
+            int next = (i + 1) % xPoints.length;
+            double edgeX = xPoints[next] - xPoints[i];
+            double edgeY = yPoints[next] - yPoints[i];
+            double length = Math.sqrt(edgeX*edgeX + edgeY*edgeY);
+            double normalX = edgeY / length;
+            double normalY = -edgeX / length;
+            //make sure the normal points away from the middle of the polygon
+            if(normalX*(xPoints[i] - xCenter) + normalY*(yPoints[i] - yCenter) < 0){
+                normalX = -normalX;
+                normalY = -normalY;
+            }
+            xNormals[i] = normalX;
+            yNormals[i] = normalY;
+        }
+    }
+
+    private static double maxAbs(double[] values){
+        double max = 0;
+        for(double value : values){
+            max = Math.max(max, Math.abs(value));
+        }
+        return max;
+    }
+
+    @Override
+    protected boolean findNormal(Projectile incoming){
+        double cX = incoming.getxPosition() - this.getxPosition();
+        double cY = incoming.getyPosition() - this.getyPosition();
+        double radius = incoming.getRadius();
+
+        //find the edge the ball's center is farthest outside of
+        int bestEdge = 0;
+        double maxSeparation = Double.NEGATIVE_INFINITY;
+        for(int i = 0; i < xPoints.length; i++){
+            double separation = (cX - xPoints[i])*xNormals[i] + (cY - yPoints[i])*yNormals[i];
+            if(separation > radius){
+                return false; //that edge separates the ball from the polygon
+            }
+            if(separation > maxSeparation){
+                maxSeparation = separation;
+                bestEdge = i;
+            }
+        }
+        if(maxSeparation <= 0){
+            normalX = xNormals[bestEdge]; //the center is inside, so push it out the nearest edge
+            normalY = yNormals[bestEdge];
+            return true;
+        }
+
+        //otherwise the ball is touching the closest point on the outline, which might be a corner
+        double bestDistSquared = Double.POSITIVE_INFINITY;
+        double bestX = 0;
+        double bestY = 0;
+        for(int i = 0; i < xPoints.length; i++){
+            int next = (i + 1) % xPoints.length;
+            double edgeX = xPoints[next] - xPoints[i];
+            double edgeY = yPoints[next] - yPoints[i];
+            double t = ((cX - xPoints[i])*edgeX + (cY - yPoints[i])*edgeY) / (edgeX*edgeX + edgeY*edgeY);
+            t = Math.max(0, Math.min(1, t));
+            double dX = cX - (xPoints[i] + t*edgeX);
+            double dY = cY - (yPoints[i] + t*edgeY);
+            double distSquared = dX*dX + dY*dY;
+            if(distSquared < bestDistSquared){
+                bestDistSquared = distSquared;
+                bestX = dX;
+                bestY = dY;
+            }
+        }
+        if(bestDistSquared > radius*radius){
+            return false;
+        }
+        double dist = Math.sqrt(bestDistSquared);
+        normalX = bestX/dist;
+        normalY = bestY/dist;
+        return true;
+    }
+
+    @Override
+    public Shape getShape(){
+        Path2D.Double outline = new Path2D.Double();
+        outline.moveTo(this.getxPosition() + xPoints[0], this.getyPosition() + yPoints[0]);
+        for(int i = 1; i < xPoints.length; i++){
+            outline.lineTo(this.getxPosition() + xPoints[i], this.getyPosition() + yPoints[i]);
+        }
+        outline.closePath();
+        return outline;
+    }
+}
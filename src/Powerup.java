@@ -1,4 +1,5 @@
 import java.awt.*;
+import java.util.Random;
 
 /**
  * The Powerup class represents buffs and debuffs that fall from the top of the screen and must be caught by the paddle to take effect. They pass through bricks.
@@ -12,9 +13,10 @@ public class Powerup extends Projectile{
      * @param xMin the left bound of the powerup's starting location
      * @param xMax the right bound of the powerup's starting location
      * @param speed the speed at which the powerup falls. This has no horizontal component.
+     * @param rand used to pick the powerup's starting location
      */
-    public Powerup(String type, int xMin, int xMax, double speed){
-        super(0, xMin + (xMax-xMin) * Math.random(), 0, 0, speed, new Color(0,0,0));
+    public Powerup(String type, int xMin, int xMax, double speed, Random rand){
+        super(0, xMin + (xMax-xMin) * rand.nextDouble(), 0, 0, speed, new Color(0,0,0));
 
         this.type = type;
 
@@ -0,0 +1,14 @@
+import jdk.jfr.*;
+
+/**
+ * A Flight Recorder event recorded whenever a powerup reaches the paddle and its effect is applied.
+ */
+@Name("breakout.PowerupApplied")
+@Label("Powerup Applied")
+@Category("Breakout")
+@Enabled(false)
+@StackTrace(false)
+public class PowerupAppliedEvent extends Event {
+    @Label("Type")
+    String type;
+}
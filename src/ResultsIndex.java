@@ -0,0 +1,194 @@
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Summaries of the runs in a ResultsStore that are small enough to keep in memory no matter how many runs there are.
+ * For every board, and for all boards together, it keeps histograms of scores and ticks and the numbers of the best-scoring records.
+ * It remembers how many records it has seen, so that after a crash only the records added since it was last saved need to be read.
+ */
+public class ResultsIndex {
+    public static final int TOPSIZE = 100; //the most records a leaderboard can show
+    public static final long ALLBOARDS = 0; //the board id used for the summary of every board together
+    private static final long MAGIC = 0x4252_4B49_4458_0001L;
+
+    /**
+     * The summary of one board's runs.
+     */
+    public static class BoardStats {
+        private ValueHistogram scores = new ValueHistogram();
+        private ValueHistogram ticks = new ValueHistogram();
+        //the best runs, from highest score to lowest. Runs with equal scores are kept in the order they were added
+        private int[] topScores = new int[TOPSIZE];
+        private long[] topRecords = new long[TOPSIZE];
+        private int topCount;
+
+        private void add(RunRecord record, long recordNumber){
+            scores.add(record.getScore());
+            ticks.add(record.getTicks());
+
+            int position = topCount;
+            while(position > 0 && topScores[position - 1] < record.getScore()){
+                position--;
+            }
+            if(position == TOPSIZE){
+                return;
+            }
+            int moved = Math.min(topCount, TOPSIZE - 1) - position;
+            System.arraycopy(topScores, position, topScores, position + 1, moved);
+            System.arraycopy(topRecords, position, topRecords, position + 1, moved);
+            topScores[position] = record.getScore();
+            topRecords[position] = recordNumber;
+            topCount = Math.min(TOPSIZE, topCount + 1);
+        }
+
+        /**
+         * @return the histogram of this board's scores
+         */
+        public ValueHistogram getScores(){
+            return scores;
+        }
+
+        /**
+         * @return the histogram of how many ticks this board's runs lasted
+         */
+        public ValueHistogram getTicks(){
+            return ticks;
+        }
+
+        /**
+         * @param n how many of the best runs to get. At most TOPSIZE are kept.
+         * @return the record numbers of the n best runs, from highest score to lowest
+         */
+        public long[] getTopRecords(int n){
+            return Arrays.copyOf(topRecords, Math.min(n, topCount));
+        }
+    }
+
+    private Map<Long, BoardStats> boards;
+    private Map<Long, String> boardNames;
+    private long indexedCount; //the number of records, from the start of the store, that have been added to the index
+
+    /**
+     * Creates an index that hasn't seen any records.
+     */
+    public ResultsIndex(){
+        boards = new HashMap<>();
+        boardNames = new HashMap<>();
+        boards.put(ALLBOARDS, new BoardStats());
+    }
+
+    /**
+     * Adds a record to the summaries of its board and of every board.
+     * @param record the record to add
+     * @param recordNumber where the record is in the store. Records must be added in order.
+     */
+    public void add(RunRecord record, long recordNumber){
+        boards.get(ALLBOARDS).add(record, recordNumber);
+        boards.computeIfAbsent(record.getBoardId(), id -> new BoardStats()).add(record, recordNumber);
+        indexedCount = recordNumber + 1;
+    }
+
+    /**
+     * Remembers the name that goes with a board id, so that leaderboards can show it.
+     * @param boardName the board's name
+     */
+    public void addBoardName(String boardName){
+        boardNames.put(RunRecord.boardId(boardName), boardName);
+    }
+
+    /**
+     * @param boardId the board's id, or ALLBOARDS
+     * @return the summary of that board's runs, or null if it has none
+     */
+    public BoardStats getStats(long boardId){
+        return boards.get(boardId);
+    }
+
+    /**
+     * @param boardId a board's id
+     * @return the board's name, or its id in hexadecimal if its name isn't known
+     */
+    public String getBoardName(long boardId){
+        return boardNames.getOrDefault(boardId, Long.toHexString(boardId));
+    }
+
+    /**
+     * @return the number of records, from the start of the store, that are included in the index
+     */
+    public long getIndexedCount(){
+        return indexedCount;
+    }
+
+    /**
+     * Saves the index. It is written to a temporary file first and then moved into place, so a crash leaves either the old index or the new one.
+     * @param file where to save the index
+     */
+    public void save(File file) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))){
+            out.writeLong(MAGIC);
+            out.writeLong(indexedCount);
+            out.writeInt(boardNames.size());
+            for(Map.Entry<Long, String> entry : boardNames.entrySet()){
+                out.writeLong(entry.getKey());
+                out.writeUTF(entry.getValue());
+            }
+            out.writeInt(boards.size());
+            for(Map.Entry<Long, BoardStats> entry : boards.entrySet()){
+                BoardStats stats = entry.getValue();
+                out.writeLong(entry.getKey());
+                stats.scores.writeTo(out);
+                stats.ticks.writeTo(out);
+                out.writeInt(stats.topCount);
+                for(int i = 0; i < stats.topCount; i++){
+                    out.writeInt(stats.topScores[i]);
+                    out.writeLong(stats.topRecords[i]);
+                }
+            }
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads an index that was saved with save().
+     * @param file where the index was saved
+     * @return the index, or null if there isn't one or it can't be read
+     */
+    public static ResultsIndex load(File file){
+        if(!file.exists()){
+            return null;
+        }
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))){
+            if(in.readLong() != MAGIC){
+                return null;
+            }
+            ResultsIndex index = new ResultsIndex();
+            index.indexedCount = in.readLong();
+            int names = in.readInt();
+            for(int i = 0; i < names; i++){
+                index.boardNames.put(in.readLong(), in.readUTF());
+            }
+            int boardCount = in.readInt();
+            for(int i = 0; i < boardCount; i++){
+                long boardId = in.readLong();
+                BoardStats stats = new BoardStats();
+                stats.scores = ValueHistogram.readFrom(in);
+                stats.ticks = ValueHistogram.readFrom(in);
+                stats.topCount = in.readInt();
+                for(int j = 0; j < stats.topCount; j++){
+                    stats.topScores[j] = in.readInt();
+                    stats.topRecords[j] = in.readLong();
+                }
+                index.boards.put(boardId, stats);
+            }
+            return index;
+        }
+        catch (IOException e){
+            return null; //the index can always be rebuilt from the records
+        }
+    }
+}
@@ -0,0 +1,244 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A file that the result of every finished game is added to. Results are only ever added to the end of the file, never changed.
+ * They are collected into batches, and each batch is written through a memory-mapped region at the end of the file.
+ * The file starts with a header holding the number of records that have been completely written, which is only updated once a
+ * batch is safely on disk, so a crash in the middle of a batch just loses that batch.
+ * A ResultsIndex, saved next to the file, answers leaderboard and percentile questions without reading the records.
+ * Only one ResultsStore can have a file open at a time, even across programs. Opening one that is already open fails instead of waiting.
+ * Its methods are synchronized, so a store can be shared between threads, such as a game and the shutdown hook that closes its results file.
+ */
+public class ResultsStore implements Closeable {
+    private static final long MAGIC = 0x4252_4B52_554E_0001L;
+    private static final int HEADERSIZE = 64;
+    private static final int BATCHSIZE = 4096; //how many records to collect before writing them
+
+    private File indexFile;
+    private RandomAccessFile file;
+    private FileChannel channel;
+    private FileLock lock; //null if the store was opened read-only
+    private boolean readOnly;
+    private long recordCount; //the number of records that have been completely written
+    private List<RunRecord> batch;
+    private ResultsIndex index;
+
+    /**
+     * Opens a results file, creating it if it doesn't exist. If the index is missing or behind, it is brought up to date
+     * by reading only the records it hasn't seen. Board names are only kept in the index, so a rebuilt index shows board ids
+     * instead until each board is played again.
+     * @param filename the name of the results file. The index is kept in the same place, with .idx added to the name.
+     */
+    public ResultsStore(String filename) throws IOException {
+        this(filename, false);
+    }
+
+    /**
+     * Opens a results file, either to add results to it or only to look at it.
+     * A read-only store doesn't lock the file, so it can be opened while a game is adding results. It never changes the file or its
+     * index, and only sees the results that had been written when it was opened.
+     * @param filename the name of the results file. The index is kept in the same place, with .idx added to the name.
+     * @param readOnly true to only look at the file. It has to exist already.
+     */
+    public ResultsStore(String filename, boolean readOnly) throws IOException {
+        this.readOnly = readOnly;
+        indexFile = new File(filename + ".idx");
+        file = new RandomAccessFile(filename, readOnly ? "r" : "rw");
+        channel = file.getChannel();
+        batch = new ArrayList<>();
+        if(!readOnly){
+            try{
+                lock = channel.tryLock();
+            }
+            catch (OverlappingFileLockException e){
+                lock = null; //this program already has the file open
+            }
+            if(lock == null){
+                file.close();
+                throw new IOException(filename + " is already open");
+            }
+            if(channel.size() == 0){
+                writeHeader();
+            }
+        }
+
+        //the index is saved after the header, so loading it first means it can't be ahead of the header even if a game is writing
+        index = ResultsIndex.load(indexFile);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADERSIZE);
+        channel.read(header, 0);
+        header.flip();
+        if(header.remaining() < HEADERSIZE || header.getLong() != MAGIC || header.getInt() != RunRecord.SIZE){
+            close();
+            throw new IOException(filename + " is not a results file");
+        }
+        recordCount = header.getLong();
+
+        if(index == null || index.getIndexedCount() > recordCount){
+            index = new ResultsIndex();
+        }
+        if(index.getIndexedCount() < recordCount){
+            catchUp();
+            if(!readOnly){
+                index.save(indexFile);
+            }
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADERSIZE);
+        header.putLong(MAGIC);
+        header.putInt(RunRecord.SIZE);
+        header.putLong(recordCount);
+        header.clear(); //write the whole header, including the unused space after the count
+        while(header.hasRemaining()){
+            channel.write(header, header.position());
+        }
+        channel.force(false);
+    }
+
+    //add the records the index hasn't seen yet, reading them in large blocks
+    private void catchUp() throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(RunRecord.SIZE * BATCHSIZE);
+        long next = index.getIndexedCount();
+        while(next < recordCount){
+            block.clear();
+            int count = (int)Math.min(BATCHSIZE, recordCount - next);
+            block.limit(count * RunRecord.SIZE);
+            long position = HEADERSIZE + next * RunRecord.SIZE;
+            while(block.hasRemaining()){
+                if(channel.read(block, position + block.position()) < 0){
+                    throw new IOException("The results file ends before its last record");
+                }
+            }
+            block.flip();
+            for(int i = 0; i < count; i++){
+                index.add(RunRecord.readFrom(block), next++);
+            }
+        }
+    }
+
+    /**
+     * Adds the result of a game. It is written along with the rest of its batch, once the batch is full or the store is flushed or closed.
+     * @param record the result to add
+     * @param boardName the name of the board that was played, so leaderboards can show it
+     */
+    public synchronized void append(RunRecord record, String boardName) throws IOException {
+        if(readOnly){
+            throw new IOException("This results file was opened read-only");
+        }
+        index.addBoardName(boardName);
+        batch.add(record);
+        if(batch.size() >= BATCHSIZE){
+            flush();
+        }
+    }
+
+    /**
+     * Writes every result that has been added but not written yet, then updates the header and the index.
+     */
+    public synchronized void flush() throws IOException {
+        if(batch.isEmpty()){
+            return;
+        }
+        long start = HEADERSIZE + recordCount * RunRecord.SIZE;
+        MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_WRITE, start, (long)batch.size() * RunRecord.SIZE);
+        for(RunRecord record : batch){
+            record.writeTo(region);
+        }
+        region.force();
+
+        //the records are on disk, so now they can be counted
+        for(RunRecord record : batch){
+            index.add(record, recordCount++);
+        }
+        batch.clear();
+        writeHeader();
+        index.save(indexFile);
+    }
+
+    /**
+     * Reads one record.
+     * @param recordNumber the record's position in the file, starting from 0
+     * @return the record
+     */
+    public synchronized RunRecord read(long recordNumber) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(RunRecord.SIZE);
+        long position = HEADERSIZE + recordNumber * RunRecord.SIZE;
+        while(buffer.hasRemaining()){
+            if(channel.read(buffer, position + buffer.position()) < 0){
+                throw new IOException("There is no record " + recordNumber);
+            }
+        }
+        buffer.flip();
+        return RunRecord.readFrom(buffer);
+    }
+
+    /**
+     * Finds the highest-scoring runs. This only reads the n records that are returned.
+     * @param boardName the board to look at, or null for every board
+     * @param n how many runs to return. At most ResultsIndex.TOPSIZE are kept.
+     * @return the best runs, from highest score to lowest
+     */
+    public synchronized List<RunRecord> top(String boardName, int n) throws IOException {
+        flush();
+        List<RunRecord> best = new ArrayList<>();
+        ResultsIndex.BoardStats stats = index.getStats(boardName == null ? ResultsIndex.ALLBOARDS : RunRecord.boardId(boardName));
+        if(stats != null){
+            for(long recordNumber : stats.getTopRecords(n)){
+                best.add(read(recordNumber));
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds the summary of a board's runs, for reading percentiles and counts.
+     * @param boardName the board to look at, or null for every board
+     * @return the board's summary, or null if it hasn't been played
+     */
+    public synchronized ResultsIndex.BoardStats stats(String boardName) throws IOException {
+        flush();
+        return index.getStats(boardName == null ? ResultsIndex.ALLBOARDS : RunRecord.boardId(boardName));
+    }
+
+    /**
+     * @param boardId a board's id
+     * @return the board's name, if it is known
+     */
+    public synchronized String boardName(long boardId){
+        return index.getBoardName(boardId);
+    }
+
+    /**
+     * @return the number of results in the store, including ones that haven't been written yet
+     */
+    public synchronized long size(){
+        return recordCount + batch.size();
+    }
+
+    /**
+     * Writes any results that haven't been written yet and releases the file.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try{
+            if(lock != null && lock.isValid()){
+                flush();
+            }
+        }
+        finally{
+            file.close(); //this also releases the lock
+        }
+    }
+}
@@ -0,0 +1,34 @@
+import java.awt.*;
+
+/**
+ * A rectangular brick that has been rotated about its center. It collides like any other convex polygon.
+ */
+public class RotatedBrick extends PolygonBrick {
+
+    /**
+     * Initialize a RotatedBrick
+     * @param height the height of the brick before it is rotated
+     * @param width the width of the brick before it is rotated
+     * @param xPos the horizontal position of the brick's center
+     * @param yPos the vertical position of the brick's center
+     * @param angle how far to rotate the brick clockwise, in degrees
+     * @param color the starting color of this brick
+     */
+    public RotatedBrick(int height, int width, double xPos, double yPos, double angle, Color color){
+        super(xPos, yPos, corners(height, width, angle, true), corners(height, width, angle, false), color);
+    }
+
+    //the x or y offsets of the rectangle's four corners once it has been rotated
+    private static double[] corners(int height, int width, double angle, boolean xAxis){
+        double cos = Math.cos(Math.toRadians(angle));
+        double sin = Math.sin(Math.toRadians(angle));
+        double[] localX = {-width/2.0, width/2.0, width/2.0, -width/2.0};
+        double[] localY = {-height/2.0, -height/2.0, height/2.0, height/2.0};
+
+        double[] result = new double[4];
+        for(int i = 0; i < 4; i++){
+            result[i] = xAxis ? localX[i]*cos - localY[i]*sin : localX[i]*sin + localY[i]*cos;
+        }
+        return result;
+    }
+}
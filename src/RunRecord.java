@@ -0,0 +1,126 @@
+import java.nio.ByteBuffer;
+
+/**
+ * The result of one finished game, as it is stored in a ResultsStore. Every record takes up exactly SIZE bytes,
+ * so the store can find any record from its number without reading the ones before it.
+ */
+public class RunRecord {
+    public static final int SIZE = 64;
+
+    private long boardId;
+    private long seed;
+    private long timestamp;
+    private long ticks;
+    private long updateNanos;
+    private long maxUpdateNanos;
+    private int score;
+    private int livesLeft;
+    private int bricksBroken;
+    private boolean won;
+
+    /**
+     * @param boardId the id of the board that was played, from boardId()
+     * @param seed the seed the game was started with
+     * @param timestamp when the game finished, in milliseconds since 1970
+     * @param ticks how many times the game was updated
+     * @param updateNanos the total time spent updating the game, in nanoseconds
+     * @param maxUpdateNanos the longest any single update took, in nanoseconds
+     * @param score the player's score
+     * @param livesLeft how many lives the player had left at the end
+     * @param bricksBroken how many bricks were broken
+     * @param won true if every brick was broken
+     */
+    public RunRecord(long boardId, long seed, long timestamp, long ticks, long updateNanos, long maxUpdateNanos, int score, int livesLeft, int bricksBroken, boolean won){
+        this.boardId = boardId;
+        this.seed = seed;
+        this.timestamp = timestamp;
+        this.ticks = ticks;
+        this.updateNanos = updateNanos;
+        this.maxUpdateNanos = maxUpdateNanos;
+        this.score = score;
+        this.livesLeft = livesLeft;
+        this.bricksBroken = bricksBroken;
+        this.won = won;
+    }
+
+    /**
+     * Works out the id a board's results are stored under. It is a 64-bit FNV-1a hash of the board's name, so the same board always gets the same id.
+     * @param boardName the board's file name, without any folders
+     * @return the board's id
+     */
+    public static long boardId(String boardName){
+        long hash = 0xcbf29ce484222325L;
+        for(int i = 0; i < boardName.length(); i++){
+            hash ^= boardName.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash == 0 ? 1 : hash; //0 is used by the indexes to mean every board
+    }
+
+    /**
+     * Writes this record into the next SIZE bytes of a buffer.
+     * @param out the buffer to write to
+     */
+    public void writeTo(ByteBuffer out){
+        out.putLong(boardId);
+        out.putLong(seed);
+        out.putLong(timestamp);
+        out.putLong(ticks);
+        out.putLong(updateNanos);
+        out.putLong(maxUpdateNanos);
+        out.putInt(score);
+        out.putInt(livesLeft);
+        out.putInt(bricksBroken);
+        out.putInt(won ? 1 : 0);
+    }
+
+    /**
+     * Reads a record from the next SIZE bytes of a buffer.
+     * @param in the buffer to read from
+     * @return the record
+     */
+    public static RunRecord readFrom(ByteBuffer in){
+        return new RunRecord(in.getLong(), in.getLong(), in.getLong(), in.getLong(), in.getLong(), in.getLong(),
+                in.getInt(), in.getInt(), in.getInt(), in.getInt() != 0);
+    }
+
+    public long getBoardId() {
+        return boardId;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getUpdateNanos() {
+        return updateNanos;
+    }
+
+    public long getMaxUpdateNanos() {
+        return maxUpdateNanos;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getLivesLeft() {
+        return livesLeft;
+    }
+
+    public int getBricksBroken() {
+        return bricksBroken;
+    }
+
+    public boolean isWon() {
+        return won;
+    }
+}
@@ -0,0 +1,71 @@
+import java.awt.*;
+
+/**
+ * A brick that isn't an axis-aligned rectangle. Its height and width are those of its bounding box, and instead of reporting which side
+ * was hit, it works out the normal of its surface at the point of contact and reflects the ball off of that.
+ */
+public abstract class ShapedBrick extends Brick {
+    protected double normalX; //the contact normal found by the last call to findNormal()
+    protected double normalY;
+    private Projectile normalFor; //the projectile detectCollision() last found touching this brick, so collide() can reuse its normal
+
+    /**
+     * Initialize a ShapedBrick. (xPos, yPos) is the center of its bounding box.
+     * @param height the height of the brick's bounding box
+     * @param width the width of the brick's bounding box
+     * @param xPos the horizontal position of the Brick's center
+     * @param yPos the vertical position of the Brick's center
+     * @param color the starting color of this brick
+     */
+    public ShapedBrick(int height, int width, double xPos, double yPos, Color color){
+        super(height, width, xPos, yPos, color);
+    }
+
+    /**
+     * Finds the normal of this brick's surface where a projectile is touching it, and stores it in normalX and normalY.
+     * @param incoming the projectile to check for contact with this brick
+     * @return true if they are touching, in which case (normalX, normalY) is a unit vector pointing out of the brick toward the projectile
+     */
+    protected abstract boolean findNormal(Projectile incoming);
+
+    /**
+     * Creates the outline of this brick in screen coordinates so that it can be drawn.
+     * @return the brick's outline
+     */
+    public abstract Shape getShape();
+
+    /**
+     * @param incoming the projectile to check for a collision with this Brick.
+     * @return 0 if there is no collision, 5 if there is. Shaped bricks don't have sides, so the contact normal is kept for collide() instead.
+     */
+    @Override
+    public int detectCollision(Projectile incoming){
+        if(findNormal(incoming)){
+            normalFor = incoming;
+            return 5;
+        }
+        normalFor = null;
+        return 0;
+    }
+
+    /**
+     * Reflects a ball across the contact normal, as long as it is moving into the brick. Powerups pass through.
+     * @param incoming the projectile that has collided with this brick
+     * @param collisionSide ignored, since shaped bricks don't have numbered sides
+     */
+    @Override
+    public void collide(Projectile incoming, int collisionSide){
+        if(incoming instanceof Ball){
+            //detectCollision() has almost always just found the normal for this projectile
+            if(normalFor != incoming && !findNormal(incoming)){
+                return;
+            }
+            normalFor = null;
+            double dot = incoming.getxVelocity()*normalX + incoming.getyVelocity()*normalY;
+            if(dot < 0){
+                incoming.setxVelocity(incoming.getxVelocity() - 2*dot*normalX);
+                incoming.setyVelocity(incoming.getyVelocity() - 2*dot*normalY);
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+import jdk.jfr.*;
+
+/**
+ * A Flight Recorder event covering one call to Game.update(). It is disabled by default, so it costs almost nothing unless a recording turns it on.
+ * All of the game's events are turned on by the breakout.jfc settings file next to the board files, for example by running this from that folder:
+ * java -XX:StartFlightRecording:settings=profile,settings=breakout.jfc,filename=breakout.jfr Main Pyramid.txt
+ */
+@Name("breakout.Tick")
+@Label("Tick")
+@Category("Breakout")
+@Description("One game state update")
+@Enabled(false)
+@StackTrace(false)
+public class TickEvent extends Event {
+    @Label("Ball Count")
+    int ballCount;
+
+    @Label("Brick Count")
+    int brickCount;
+
+    @Label("Collisions Tested")
+    int collisionsTested;
+}
@@ -0,0 +1,117 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Counts how many times each value has been seen, so that percentiles can be read off without keeping the values themselves.
+ * Values below 256 are counted exactly. Larger values share buckets that are less than 1% wide, so the memory used
+ * only grows with the number of digits in the largest value, not with how many values have been counted.
+ */
+public class ValueHistogram {
+    private final int EXACT = 256; //values below this each get their own bucket
+    private final int SUBBUCKETBITS = 7; //each power of two above EXACT is split into 2^7 buckets
+
+    private long[] counts = new long[EXACT];
+    private long total;
+
+    private int bucket(long value){
+        if(value < EXACT){
+            return (int)Math.max(0, value);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value); //at least 8
+        int sub = (int)((value >>> (exponent - SUBBUCKETBITS)) & ((1 << SUBBUCKETBITS) - 1));
+        return EXACT + ((exponent - 8) << SUBBUCKETBITS) + sub;
+    }
+
+    //the smallest value that goes in a bucket
+    private long lowestIn(int bucket){
+        if(bucket < EXACT){
+            return bucket;
+        }
+        int exponent = ((bucket - EXACT) >> SUBBUCKETBITS) + 8;
+        long sub = (bucket - EXACT) & ((1 << SUBBUCKETBITS) - 1);
+        return (1L << exponent) | (sub << (exponent - SUBBUCKETBITS));
+    }
+
+    /**
+     * Counts one value. Negative values are counted as 0.
+     * @param value the value to count
+     */
+    public void add(long value){
+        int index = bucket(value);
+        if(index >= counts.length){
+            counts = Arrays.copyOf(counts, index + 1);
+        }
+        counts[index]++;
+        total++;
+    }
+
+    /**
+     * This method retrieves the number of values counted.
+     * @return the number of values counted
+     */
+    public long getTotal(){
+        return total;
+    }
+
+    /**
+     * Finds the value that the given percentage of the counted values are less than or equal to.
+     * @param percentile a number from 0 to 100
+     * @return the value at that percentile, rounded down by less than 1%, or 0 if nothing has been counted
+     */
+    public long percentile(double percentile){
+        if(total == 0){
+            return 0;
+        }
+        long rank = Math.max(1, (long)Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100.0));
+        long seen = 0;
+        for(int i = 0; i < counts.length; i++){
+            seen += counts[i];
+            if(seen >= rank){
+                return lowestIn(i);
+            }
+        }
+        return lowestIn(counts.length - 1);
+    }
+
+    /**
+     * Writes the histogram to a file, leaving out empty buckets.
+     * @param out the file to write to
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        int used = 0;
+        for(long count : counts){
+            if(count > 0){
+                used++;
+            }
+        }
+        out.writeInt(used);
+        for(int i = 0; i < counts.length; i++){
+            if(counts[i] > 0){
+                out.writeInt(i);
+                out.writeLong(counts[i]);
+            }
+        }
+    }
+
+    /**
+     * Reads a histogram that was written by writeTo().
+     * @param in the file to read from
+     * @return the histogram
+     */
+    public static ValueHistogram readFrom(DataInputStream in) throws IOException {
+        ValueHistogram histogram = new ValueHistogram();
+        int used = in.readInt();
+        for(int i = 0; i < used; i++){
+            int index = in.readInt();
+            long count = in.readLong();
+            if(index >= histogram.counts.length){
+                histogram.counts = Arrays.copyOf(histogram.counts, index + 1);
+            }
+            histogram.counts[index] = count;
+            histogram.total += count;
+        }
+        return histogram;
+    }
+}